@@ -1,5 +1,6 @@
 package org.tukma.auth.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -24,12 +25,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.tukma.auth.dtos.LoginDto;
 import org.tukma.auth.dtos.SignUpDto;
+import org.tukma.auth.exceptions.HashingUnavailableException;
 import org.tukma.auth.models.UserEntity;
+import org.tukma.auth.services.LoginRateLimiter;
 import org.tukma.auth.services.ModifiedUserServices;
 import org.tukma.config.JwtCompilationUnit;
 import org.tukma.utils.LogUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -44,22 +49,35 @@ public class AuthController {
     private final ModifiedUserServices userService;
     private final ModifiedUserServices modifiedUserServices;
     private final RedisTemplate<String, Object> ticketGenerator;
+    private final LoginRateLimiter rateLimiter;
 
     @Autowired
     public AuthController(ModifiedUserServices userServices, AuthenticationManager authenticationManager,
             JwtCompilationUnit compilationUnit, ModifiedUserServices modifiedUserServices,
-            RedisTemplate<String, Object> ticketGenerator) {
+            RedisTemplate<String, Object> ticketGenerator, LoginRateLimiter rateLimiter) {
         this.authenticationManager = authenticationManager;
         this.compilationUnit = compilationUnit;
         userService = userServices;
         this.modifiedUserServices = modifiedUserServices;
         this.ticketGenerator = ticketGenerator;
+        this.rateLimiter = rateLimiter;
+    }
+
+    private static ResponseEntity<?> rateLimited(long retryAfterMillis) {
+        long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("message", "Rate limit exceeded. Please try again later."));
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signUp(@Valid @RequestBody Map<String, Object> requestBody) {
+    public ResponseEntity<?> signUp(@Valid @RequestBody Map<String, Object> requestBody, HttpServletRequest request) {
         // Extract data from request body to ensure proper boolean handling
         String email = (String) requestBody.get("email");
+        long retryAfter = rateLimiter.acquire("signup", request.getRemoteAddr(), email);
+        if (retryAfter > 0) {
+            return rateLimited(retryAfter);
+        }
         String password = (String) requestBody.get("password");
         String firstName = (String) requestBody.get("firstName");
         String lastName = (String) requestBody.get("lastName");
@@ -102,7 +120,11 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginDto loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginDto loginRequest, HttpServletRequest request) {
+        long retryAfter = rateLimiter.acquire("login", request.getRemoteAddr(), loginRequest.getEmail());
+        if (retryAfter > 0) {
+            return rateLimited(retryAfter);
+        }
         try {
             var user = (UserEntity) modifiedUserServices.loadUserByUsername(loginRequest.getEmail());
             Authentication authentication = authenticationManager.authenticate(
@@ -127,6 +149,9 @@ public class AuthController {
                     .header(HttpHeaders.SET_COOKIE, cookie.toString())
                     .body(Map.of("Message", "Login Successful", "ticket", ticket));
 
+        } catch (HashingUnavailableException ex) {
+            // Not a credential failure; let the exception handler answer 503
+            throw ex;
         } catch (Exception ex) {
             Logger.getGlobal().info("Some exception happened during auth: " + LogUtils.getStackTraceAsString(ex));
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", ex.getLocalizedMessage()));
@@ -228,22 +253,29 @@ public class AuthController {
                     .body(Map.of("message", "No updates provided"));
         }
 
-        int updatedCount = 0;
+        // Later entries for the same user win, as they would have with one-by-one updates
+        Map<Long, Boolean> targets = new LinkedHashMap<>();
         for (Map<String, Object> update : updates) {
             if (update.containsKey("userId") && update.containsKey("hasJob")) {
                 Long userId = ((Number) update.get("userId")).longValue();
-                Boolean hasJob = (Boolean) update.get("hasJob");
+                targets.put(userId, (Boolean) update.get("hasJob"));
+            }
+        }
 
-                boolean success = userService.updateUserJobStatus(userId, hasJob);
-                if (success) {
-                    updatedCount++;
-                }
+        Map<Long, String> outcomes = userService.bulkUpdateUserJobStatus(targets);
+        List<Map<String, Object>> results = new ArrayList<>(outcomes.size());
+        int updatedCount = 0;
+        for (Map.Entry<Long, String> outcome : outcomes.entrySet()) {
+            results.add(Map.of("userId", outcome.getKey(), "status", outcome.getValue()));
+            if ("updated".equals(outcome.getValue())) {
+                updatedCount++;
             }
         }
 
         return ResponseEntity.ok(Map.of(
                 "message", "Batch update completed",
-                "updatedUsers", updatedCount));
+                "updatedUsers", updatedCount,
+                "results", results));
     }
 
 }
@@ -0,0 +1,8 @@
+package org.tukma.auth.exceptions;
+
+public class HashingUnavailableException extends RuntimeException {
+
+    public HashingUnavailableException(String message) {
+        super("Password hashing is at capacity: " + message);
+    }
+}
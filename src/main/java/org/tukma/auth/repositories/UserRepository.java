@@ -1,9 +1,13 @@
 package org.tukma.auth.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
 import org.tukma.auth.models.UserEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,12 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     // Methods for finding users by hasJob status
     List<UserEntity> findByHasJob(Boolean hasJob);
     List<UserEntity> findByHasJobIsNull();
+
+    // Id and username pairs for the given ids, without loading full entities
+    @Query("SELECT u.id, u.username FROM UserEntity u WHERE u.id IN :ids")
+    List<Object[]> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.hasJob = :hasJob WHERE u.id IN :ids")
+    int updateHasJobByIdIn(@Param("hasJob") Boolean hasJob, @Param("ids") Collection<Long> ids);
 }
@@ -1,37 +1,86 @@
 package org.tukma.auth.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.tukma.auth.exceptions.NullUserException;
 import org.tukma.auth.models.UserEntity;
 import org.tukma.auth.repositories.UserRepository;
+import org.tukma.config.CacheInvalidationBus;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ModifiedUserServices implements org.springframework.security.core.userdetails.UserDetailsService {
 
 
+    private static final String CACHE_NAME = "principals";
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * Users loaded by the JWT filter, keyed by username. Writes through this service invalidate
+     * the entry on every instance; the TTL bounds staleness for changes made elsewhere.
+     */
+    private final Cache<String, UserEntity> principals;
 
     public String hashPassword(String rawPassword) {
         return passwordEncoder.encode(rawPassword);
     }
 
     @Autowired
-    public ModifiedUserServices(UserRepository userRepository) {
+    public ModifiedUserServices(UserRepository userRepository, BoundedPasswordEncoder passwordEncoder,
+                                CacheInvalidationBus invalidationBus, Environment environment) {
         this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.invalidationBus = invalidationBus;
+        this.principals = CacheBuilder.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(environment.getProperty("tukma.auth.principal-cache-ttl-seconds", Long.class, 60L),
+                        TimeUnit.SECONDS)
+                .build();
+        invalidationBus.register(CACHE_NAME, principals::invalidate, false);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User of string-id:`" + username + "` not found."));
+        UserEntity cached = principals.getIfPresent(username);
+        if (cached == null) {
+            cached = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User of string-id:`" + username + "` not found."));
+            principals.put(username, cached);
+        }
+        // Controllers mutate the principal before saving it, so each request gets its own copy
+        return copyOf(cached);
+    }
+
+    /**
+     * Drops a user from the principal cache on this and every other instance.
+     * @param username The username of the changed user
+     */
+    public void evictPrincipal(String username) {
+        if (username == null) {
+            return;
+        }
+        principals.invalidate(username);
+        invalidationBus.publish(CACHE_NAME, username);
     }
 
     public boolean userExists(String email) {
@@ -44,7 +93,9 @@ public class ModifiedUserServices implements org.springframework.security.core.u
      * @return The saved user entity
      */
     public UserEntity saveUser(UserEntity user) {
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        evictPrincipal(saved.getUsername());
+        return saved;
     }
     
     /**
@@ -59,11 +110,64 @@ public class ModifiedUserServices implements org.springframework.security.core.u
             UserEntity user = userOpt.get();
             user.setHasJob(hasJob);
             userRepository.save(user);
+            evictPrincipal(user.getUsername());
             return true;
         }
         return false;
     }
     
+    /**
+     * Update the hasJob field for many users at once.
+     * Ids are grouped by target value and each group is written with a single UPDATE ... WHERE id IN,
+     * all inside one transaction.
+     * @param updates Target hasJob value per user id (null values are allowed)
+     * @return Per-id outcome, "updated" or "not_found", in request order
+     */
+    @Transactional
+    public Map<Long, String> bulkUpdateUserJobStatus(Map<Long, Boolean> updates) {
+        Map<Long, String> outcomes = new LinkedHashMap<>();
+        if (updates.isEmpty()) {
+            return outcomes;
+        }
+
+        Map<Long, String> usernames = new HashMap<>();
+        for (List<Long> chunk : Lists.partition(new ArrayList<>(updates.keySet()), IN_CLAUSE_LIMIT)) {
+            for (Object[] row : userRepository.findUsernamesByIdIn(chunk)) {
+                usernames.put((Long) row[0], (String) row[1]);
+            }
+        }
+
+        // HashMap allows the null key, which carries the "clear hasJob" group
+        Map<Boolean, List<Long>> groups = new HashMap<>();
+        for (Map.Entry<Long, Boolean> update : updates.entrySet()) {
+            if (usernames.containsKey(update.getKey())) {
+                groups.computeIfAbsent(update.getValue(), value -> new ArrayList<>()).add(update.getKey());
+                outcomes.put(update.getKey(), "updated");
+            } else {
+                outcomes.put(update.getKey(), "not_found");
+            }
+        }
+        for (Map.Entry<Boolean, List<Long>> group : groups.entrySet()) {
+            for (List<Long> chunk : Lists.partition(group.getValue(), IN_CLAUSE_LIMIT)) {
+                userRepository.updateHasJobByIdIn(group.getKey(), chunk);
+            }
+        }
+
+        // Evict only once the new values are visible, or a concurrent request could re-cache the old ones
+        List<String> changed = new ArrayList<>(usernames.values());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.forEach(ModifiedUserServices.this::evictPrincipal);
+                }
+            });
+        } else {
+            changed.forEach(this::evictPrincipal);
+        }
+        return outcomes;
+    }
+
     /**
      * Get all users with a specific hasJob status
      * @param hasJob The hasJob value to filter by (true, false, or null)
@@ -98,7 +202,22 @@ public class ModifiedUserServices implements org.springframework.security.core.u
             user.setHasJob(null);
         }
         
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        evictPrincipal(saved.getUsername());
+        return saved;
+    }
+
+    private static UserEntity copyOf(UserEntity user) {
+        UserEntity copy = new UserEntity();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setCompanyName(user.getCompanyName());
+        copy.setPassword(user.getPassword());
+        copy.setRecruiter(user.isRecruiter());
+        copy.setHasJob(user.getHasJob());
+        return copy;
     }
 
 }
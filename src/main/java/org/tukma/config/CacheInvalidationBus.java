@@ -0,0 +1,222 @@
+package org.tukma.config;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps in-process caches coherent across instances.
+ *
+ * Writers publish the key they changed on `tukma:invalidate:{cache}` and every instance,
+ * including the publisher, drops that key from its local copy. Keys that expire in Redis
+ * are forwarded to every listener through keyspace notifications, so a near-cache entry
+ * never outlives the Redis key it mirrors. The Redis server must have expired-key events
+ * enabled; setting `tukma.redis.keyspace-notifications` (e.g. `Ex`) lets the app enable them
+ * on a server that has none configured. Without them, near-caches rely on their local TTL.
+ *
+ * Each instance also publishes a heartbeat to itself every `tukma.cache.bus.heartbeat-seconds`.
+ * The bus counts as healthy while its own heartbeats keep arriving; after three missed beats
+ * {@link #isHealthy()} turns false, so near-caches can stop trusting entries that missed
+ * invalidations, and once heartbeats return the recovery listeners clear those entries.
+ * Recovery listeners run on their own thread, so slow ones such as index reloads do not hold
+ * up invalidation messages.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = Logger.getLogger(CacheInvalidationBus.class.getName());
+
+    private static final String CHANNEL_PREFIX = "tukma:invalidate:";
+    private static final String EXPIRED_PATTERN = "__keyevent@*__:expired";
+    private static final String HEARTBEAT_CHANNEL = CHANNEL_PREFIX + "_heartbeat";
+    private static final int MISSED_HEARTBEATS = 3;
+
+    private final RedisMessageListenerContainer container;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final Environment environment;
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> expiryListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long heartbeatNanos;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("cache-bus-heartbeat").setDaemon(true).build());
+    private final ExecutorService recovery = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("cache-bus-recovery").setDaemon(true).build());
+    private final AtomicBoolean recovering = new AtomicBoolean();
+    private volatile long lastHeartbeat = System.nanoTime();
+    private volatile boolean healthy;
+
+    public CacheInvalidationBus(RedisMessageListenerContainer container, StringRedisTemplate redisTemplate,
+                                RedisConnectionFactory connectionFactory, Environment environment) {
+        this.container = container;
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.environment = environment;
+        this.heartbeatNanos = TimeUnit.SECONDS.toNanos(
+                environment.getProperty("tukma.cache.bus.heartbeat-seconds", Long.class, 5L));
+    }
+
+    @PostConstruct
+    public void subscribeToExpirations() {
+        enableExpiryNotifications();
+        container.addMessageListener((message, pattern) -> {
+            String key = body(message);
+            for (Consumer<String> listener : expiryListeners) {
+                listener.accept(key);
+            }
+        }, new PatternTopic(EXPIRED_PATTERN));
+
+        container.addMessageListener((message, pattern) -> {
+            if (instanceId.equals(body(message))) {
+                onHeartbeat();
+            }
+        }, new ChannelTopic(HEARTBEAT_CHANNEL));
+        heartbeat.scheduleWithFixedDelay(this::beat, 0, heartbeatNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        recovery.shutdownNow();
+    }
+
+    /**
+     * Whether invalidations published by other instances are currently being received.
+     * False until the first heartbeat round trip and after {@value #MISSED_HEARTBEATS} missed ones.
+     */
+    public boolean isHealthy() {
+        return healthy && System.nanoTime() - lastHeartbeat <= MISSED_HEARTBEATS * heartbeatNanos;
+    }
+
+    /**
+     * Registers an action to run whenever the bus becomes healthy again, including the first time.
+     * Near-caches use it to drop entries that may have missed invalidations while it was down.
+     */
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    /**
+     * Registers a local cache for invalidation.
+     *
+     * @param cacheName    Name shared by every instance holding this cache
+     * @param invalidate   Drops a key from the local cache
+     * @param onExpiry     Whether keys expiring in Redis should also be dropped
+     */
+    public void register(String cacheName, Consumer<String> invalidate, boolean onExpiry) {
+        listeners.computeIfAbsent(cacheName, name -> {
+            List<Consumer<String>> cacheListeners = new CopyOnWriteArrayList<>();
+            container.addMessageListener((message, pattern) -> {
+                String key = body(message);
+                for (Consumer<String> listener : cacheListeners) {
+                    listener.accept(key);
+                }
+            }, new ChannelTopic(CHANNEL_PREFIX + name));
+            return cacheListeners;
+        }).add(invalidate);
+        if (onExpiry) {
+            expiryListeners.add(invalidate);
+        }
+    }
+
+    /**
+     * Tells every instance to drop a key. Callers invalidate their own copy first;
+     * the broadcast only covers the other instances and is best effort.
+     */
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + cacheName, key);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not publish invalidation for cache " + cacheName, e);
+        }
+    }
+
+    private void beat() {
+        try {
+            redisTemplate.convertAndSend(HEARTBEAT_CHANNEL, instanceId);
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, "Could not publish cache bus heartbeat", e);
+        }
+        if (healthy && !isHealthy()) {
+            healthy = false;
+            logger.warning("Cache invalidation bus missed " + MISSED_HEARTBEATS
+                    + " heartbeats; near-caches will bypass their local copies");
+        }
+    }
+
+    // Listeners run before the bus reports healthy again, so nothing trusts an entry they are about to drop
+    private void onHeartbeat() {
+        if (isHealthy()) {
+            lastHeartbeat = System.nanoTime();
+            return;
+        }
+        healthy = false;
+        lastHeartbeat = System.nanoTime();
+        if (recovering.compareAndSet(false, true)) {
+            recovery.execute(this::recover);
+        }
+    }
+
+    private void recover() {
+        try {
+            for (Runnable listener : recoveryListeners) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Cache bus recovery listener failed", e);
+                }
+            }
+            healthy = true;
+        } finally {
+            recovering.set(false);
+        }
+    }
+
+    // Changing server configuration is opt-in, and even then only fills in an empty setting
+    private void enableExpiryNotifications() {
+        String wanted = environment.getProperty("tukma.redis.keyspace-notifications", "");
+        if (wanted.isBlank()) {
+            return;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Properties current = connection.serverCommands().getConfig("notify-keyspace-events");
+            String value = current == null ? null : current.getProperty("notify-keyspace-events");
+            if (value == null || value.isEmpty()) {
+                connection.serverCommands().setConfig("notify-keyspace-events", wanted);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not enable keyspace notifications; near-caches fall back to their local TTL", e);
+        }
+    }
+
+    private static String body(Message message) {
+        return new String(message.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,11 +1,15 @@
 package org.tukma.config;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.tukma.auth.exceptions.HashingUnavailableException;
+import org.tukma.resume.exceptions.ResumeUploadRejectedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,4 +35,29 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
         return ResponseEntity.badRequest().body("Invalid or missing request body. Please check your input.");
     }
-}
\ No newline at end of file
+
+    // Password hashing pool is saturated; tell the client to retry instead of queueing forever
+    @ExceptionHandler(value = HashingUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleHashingUnavailable(HashingUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("message", "Server is busy. Please try again shortly."));
+    }
+
+    // Resume upload refused before reaching the resume service: too large, or too many bytes in flight
+    @ExceptionHandler(value = ResumeUploadRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleResumeUploadRejected(ResumeUploadRejectedException ex) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus());
+        if (ex.getStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.header("Retry-After", "5");
+        }
+        return response.body(Map.of("error", ex.getMessage()));
+    }
+
+    // Multipart request over the servlet limits; rejected before the controller runs
+    @ExceptionHandler(value = MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("error", "Uploaded file is too large"));
+    }
+}
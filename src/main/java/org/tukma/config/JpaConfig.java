@@ -0,0 +1,36 @@
+package org.tukma.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.tukma.jobs.services.KeywordDeduplicator;
+
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Groups inserts of the same entity into JDBC batches, so saving a job's keywords is one
+     * round trip instead of one per keyword. Explicit spring.jpa.properties settings win.
+     * Override the batch size with `tukma.jpa.batch-size`.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatching(Environment environment) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE,
+                    environment.getProperty("tukma.jpa.batch-size", Integer.class, 50));
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+        };
+    }
+
+    /**
+     * Runs {@link KeywordDeduplicator} before the entity manager factory starts, so duplicate
+     * rows are gone by the time the schema update adds the keyword unique constraint.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor keywordsDeduplicatedBeforeSchemaUpdate() {
+        return new EntityManagerFactoryDependsOnPostProcessor(KeywordDeduplicator.class);
+    }
+}
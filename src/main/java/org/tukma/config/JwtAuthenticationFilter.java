@@ -14,8 +14,6 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.springframework.util.AntPathMatcher;
-import java.util.List;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.filter.RequestContextFilter;
 
@@ -26,29 +24,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtCompilationUnit compilationUnit;
     private final UserDetailsService userDetailsService;
-    private static final List<String> EXCLUDED_PATHS = List.of(
-            "/api/v1/auth/**",
-            "/api/v1/applicant/**",
-            "/api/v1/jobs/get-all-jobs",
-            "/api/v1/jobs/get-job-details/**",
-            "/api/v1/jobs/job-metadata",
-            "/api/v1/jobs/search",
-            "/api/v1/resume/cleanup-duplicates",
-            "/debug/**",
-            "/ws/**"
-    );
     private final RequestContextFilter requestContextFilter;
 
-    private boolean isExcludedPath(String requestPath) {
-        if (requestPath.startsWith("/ws")) {
-            return true;  // Completely bypass JWT filter for all WebSocket paths
-        }
-        if (requestPath.equals("/api/v1/auth/user-status")) return false;
-        return EXCLUDED_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, requestPath));
+    private boolean isExcludedPath(HttpServletRequest request) {
+        return RouteTable.APPLICATION.lookup(request) == RouteTable.Access.PUBLIC;
     }
 
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
-
     public JwtAuthenticationFilter(JwtCompilationUnit compilationUnit, UserDetailsService userDetailsService, RequestContextFilter requestContextFilter) {
         this.compilationUnit = compilationUnit;
         this.userDetailsService = userDetailsService;
@@ -58,10 +39,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        if (isExcludedPath(request.getRequestURI())) {
-            System.out.println("Excluded path: " + request.getRequestURI());
-            if (request.getRequestURI().equals("/ws/interview")) {
-                System.out.println("Ignoring jwt for ws");
+        if (isExcludedPath(request)) {
+            // Inherited filter logger; guarded so the string is only built at debug level
+            if (logger.isDebugEnabled()) {
+                logger.debug("Excluded path: " + request.getRequestURI());
             }
             filterChain.doFilter(request, response);
             return;
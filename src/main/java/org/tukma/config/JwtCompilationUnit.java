@@ -1,8 +1,13 @@
 package org.tukma.config;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
@@ -11,15 +16,32 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Component
 public class JwtCompilationUnit {
 
+    private static final Logger logger = Logger.getLogger(JwtCompilationUnit.class.getName());
+
     private static final String SECRET_KEY = "IHFS%I&Je`9g*UL{iwd<r$:.&_z%c<FP^,bH<I[{b&\"6|m%!+%yXcXt(pb4v/O-";
     private static final long expiration_time = 86400000; // this is one day
     private static final byte[] secretKeyBytes = SECRET_KEY.getBytes(StandardCharsets.UTF_16);
     private static final SecretKey secretKey = Keys.hmacShaKeyFor(secretKeyBytes);
 
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private static final JwtParser parser = Jwts.parser().verifyWith(secretKey).build();
+
+    /**
+     * Claims of tokens that already passed signature verification, keyed by the SHA-256 of the token
+     * so raw tokens are never held in memory. A hit is only served while the token's `exp` is ahead.
+     */
+    private static final Cache<HashCode, Claims> verifiedClaims = CacheBuilder.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(15, TimeUnit.MINUTES)
+            .build();
+
 
     public static TransientJwt startTransientState() {return new TransientJwt();}
 
@@ -47,17 +69,44 @@ public class JwtCompilationUnit {
 
 
     public static Claims resurrect(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        Claims cached = verifiedClaims.getIfPresent(digest);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedClaims.invalidate(digest);
+            return null;
+        }
+        Claims claims = resurrectUncached(token);
+        if (claims != null) {
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Verifies and parses a token without consulting the claims cache.
+     */
+    public static Claims resurrectUncached(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey).build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
-            System.err.println(e);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Rejected token: {0}", e.toString());
+            }
             return null;
         }
     }
 
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
 
 
 }
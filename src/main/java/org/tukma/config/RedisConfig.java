@@ -1,12 +1,19 @@
 package org.tukma.config;
 
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
 
@@ -22,4 +29,36 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Sizes the Lettuce pool from the web tier instead of the commons-pool default of 8.
+     * Plain commands share one multiplexed connection; the pool only serves transactional
+     * template work, so a quarter of the request threads is enough to keep waits near zero.
+     * Override with `tukma.redis.pool.max-active` and `tukma.redis.pool.max-wait-ms`.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer redisPoolSizing(Environment environment) {
+        int requestThreads = environment.getProperty("server.tomcat.threads.max", Integer.class, 200);
+        int maxActive = environment.getProperty("tukma.redis.pool.max-active", Integer.class,
+                Math.max(8, requestThreads / 4));
+        long maxWaitMillis = environment.getProperty("tukma.redis.pool.max-wait-ms", Long.class, 2000L);
+        return builder -> {
+            if (builder instanceof LettucePoolingClientConfiguration.LettucePoolingClientConfigurationBuilder pooling) {
+                GenericObjectPoolConfig<Object> poolConfig = new GenericObjectPoolConfig<>();
+                poolConfig.setMaxTotal(maxActive);
+                poolConfig.setMaxIdle(maxActive);
+                poolConfig.setMinIdle(Math.min(2, maxActive));
+                poolConfig.setMaxWait(Duration.ofMillis(maxWaitMillis));
+                poolConfig.setJmxEnabled(false);
+                pooling.poolConfig(poolConfig);
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package org.tukma.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single entry point for string-keyed Redis work outside of the interview state template.
+ *
+ * Everything runs on the application's Lettuce connection factory, so tickets, caches and
+ * interview state share one pool. Each call records how long it waited for a connection,
+ * how long the command took and whether it failed, tagged by operation name. Per-command
+ * latency for every template is also published by Lettuce itself under `lettuce.command.*`.
+ */
+@Component
+public class RedisGateway {
+
+    @FunctionalInterface
+    public interface StringRedisCallback<T> {
+        T doInRedis(StringRedisConnection connection);
+    }
+
+    private final StringRedisTemplate template;
+    private final ReactiveStringRedisTemplate reactiveTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer borrowTimer;
+    private final Map<String, Timer> commandTimers = new ConcurrentHashMap<>();
+
+    public RedisGateway(StringRedisTemplate template, ReactiveStringRedisTemplate reactiveTemplate,
+                        MeterRegistry meterRegistry) {
+        this.template = template;
+        this.reactiveTemplate = reactiveTemplate;
+        this.meterRegistry = meterRegistry;
+        this.borrowTimer = Timer.builder("tukma.redis.borrow")
+                .description("Time spent waiting for a Redis connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs commands on one connection.
+     *
+     * @param operation Name used to tag the metrics
+     * @param callback  Commands to run
+     * @return The callback result
+     */
+    public <T> T execute(String operation, StringRedisCallback<T> callback) {
+        long requested = System.nanoTime();
+        try {
+            return template.execute((RedisCallback<T>) connection -> {
+                // The template has acquired the connection by the time the callback runs
+                long acquired = System.nanoTime();
+                borrowTimer.record(acquired - requested, TimeUnit.NANOSECONDS);
+                try {
+                    return callback.doInRedis((StringRedisConnection) connection);
+                } finally {
+                    commandTimer(operation).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (DataAccessException e) {
+            countError(operation);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a Lua script with EVALSHA, falling back to EVAL when the server does not have it loaded.
+     * Integer replies come back as Long and status or bulk replies as String.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T script(String operation, RedisScript<T> script, List<String> keys, String... args) {
+        String[] keysAndArgs = new String[keys.size() + args.length];
+        keys.toArray(keysAndArgs);
+        System.arraycopy(args, 0, keysAndArgs, keys.size(), args.length);
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+        return execute(operation, connection -> {
+            Object reply;
+            try {
+                reply = connection.evalSha(script.getSha1(), returnType, keys.size(), keysAndArgs);
+            } catch (DataAccessException e) {
+                if (!isNoScript(e)) {
+                    throw e;
+                }
+                reply = connection.eval(script.getScriptAsString(), returnType, keys.size(), keysAndArgs);
+            }
+            return (T) (reply instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : reply);
+        });
+    }
+
+    /**
+     * Sends every command issued by the callback in one pipeline and returns their replies in order.
+     * The callback's own return value must be null, as required by Spring Data Redis.
+     */
+    public List<Object> pipelined(String operation, StringRedisCallback<?> callback) {
+        long requested = System.nanoTime();
+        long[] acquired = {requested};
+        try {
+            return template.executePipelined((RedisCallback<Object>) connection -> {
+                acquired[0] = System.nanoTime();
+                borrowTimer.record(acquired[0] - requested, TimeUnit.NANOSECONDS);
+                callback.doInRedis((StringRedisConnection) connection);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            countError(operation);
+            throw e;
+        } finally {
+            // Replies are read when the pipeline closes, so this covers the whole round trip
+            commandTimer(operation).record(System.nanoTime() - acquired[0], TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Non-blocking access for WebFlux paths. Shares the same connection factory.
+     */
+    public ReactiveStringRedisTemplate reactive() {
+        return reactiveTemplate;
+    }
+
+    private Timer commandTimer(String operation) {
+        return commandTimers.computeIfAbsent(operation, name -> Timer.builder("tukma.redis.command")
+                .tag("operation", name)
+                .register(meterRegistry));
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void countError(String operation) {
+        meterRegistry.counter("tukma.redis.errors", "operation", operation).increment();
+    }
+}
@@ -0,0 +1,200 @@
+package org.tukma.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+
+/**
+ * Access rules for request paths, compiled once into a segment trie.
+ *
+ * Both {@link JwtAuthenticationFilter} and {@link SecurityConfig} read the application table,
+ * so a public route is declared in exactly one place. Patterns are either exact paths or
+ * end in `/**`, which matches the path itself and everything below it. An exact rule beats
+ * a wildcard, and a deeper wildcard beats a shallower one. Lookups walk the request path
+ * in place and do not allocate.
+ */
+public final class RouteTable {
+
+    public enum Access {
+        PUBLIC,         // no token needed; the JWT filter is skipped
+        TOKEN_ONLY,     // the JWT filter authenticates the caller, no further authorization rule
+        AUTHENTICATED   // the JWT filter runs and the security chain requires an authenticated user
+    }
+
+    public static final RouteTable APPLICATION = builder()
+            .add("/ws/**", Access.PUBLIC)
+            .add("/debug/**", Access.PUBLIC)
+            .add("/api/v1/auth/**", Access.PUBLIC)
+            .add("/api/v1/auth/user-status", Access.TOKEN_ONLY)
+            .add("/api/v1/applicant/**", Access.PUBLIC)
+            .add("/api/v1/jobs/get-all-jobs", Access.PUBLIC)
+            .add("/api/v1/jobs/get-job-details/**", Access.PUBLIC)
+            .add("/api/v1/jobs/job-metadata", Access.PUBLIC)
+            .add("/api/v1/jobs/search", Access.PUBLIC)
+            .add("/api/v1/jobs/autocomplete", Access.PUBLIC)
+            .add("/api/v1/resume/cleanup-duplicates", Access.PUBLIC)
+            .add("GET", "/api/v1/survey/questions", Access.TOKEN_ONLY)
+            .build();
+
+    private final Node root;
+
+    private RouteTable(Node root) {
+        this.root = root;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Classifies a request path. Paths without a rule are {@link Access#AUTHENTICATED}.
+     *
+     * @param method HTTP method of the request
+     * @param path   Request URI, without query string
+     * @return The access rule for the path
+     */
+    public Access lookup(String method, String path) {
+        Node node = root;
+        Access best = Rule.resolve(node.subtree, method);
+        int length = path.length();
+        int start = 0;
+        while (true) {
+            while (start < length && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start >= length) {
+                break;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(path, start, end);
+            if (node == null) {
+                return best != null ? best : Access.AUTHENTICATED;
+            }
+            Access subtree = Rule.resolve(node.subtree, method);
+            if (subtree != null) {
+                best = subtree;
+            }
+            start = end;
+        }
+        // Like AntPathMatcher, an exact pattern does not match the same path with a trailing slash
+        if (length == 0 || path.charAt(length - 1) != '/') {
+            Access exact = Rule.resolve(node.exact, method);
+            if (exact != null) {
+                return exact;
+            }
+        }
+        return best != null ? best : Access.AUTHENTICATED;
+    }
+
+    public Access lookup(HttpServletRequest request) {
+        return lookup(request.getMethod(), request.getRequestURI());
+    }
+
+    /**
+     * Matches every request the security chain should let through without an authenticated user.
+     */
+    public RequestMatcher openRoutes() {
+        return request -> lookup(request) != Access.AUTHENTICATED;
+    }
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+
+        private Builder() {}
+
+        public Builder add(String pattern, Access access) {
+            return add(null, pattern, access);
+        }
+
+        /**
+         * Adds a rule for one HTTP method, or for every method when `method` is null.
+         */
+        public Builder add(String method, String pattern, Access access) {
+            boolean subtree = pattern.endsWith("/**");
+            String path = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+            Node node = root;
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.contains("*") || segment.contains("{")) {
+                    throw new IllegalArgumentException("Only exact paths and trailing /** are supported: " + pattern);
+                }
+                node = node.getOrAddChild(segment);
+            }
+            if (subtree) {
+                node.subtree = new Rule(method, access, node.subtree);
+            } else {
+                node.exact = new Rule(method, access, node.exact);
+            }
+            return this;
+        }
+
+        public RouteTable build() {
+            return new RouteTable(root);
+        }
+    }
+
+    private static final class Node {
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        private Rule exact;
+        private Rule subtree;
+
+        private Node child(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < segments.length; i++) {
+                String candidate = segments[i];
+                if (candidate.length() == length && path.regionMatches(start, candidate, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrAddChild(String name) {
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals(name)) {
+                    return children[i];
+                }
+            }
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = name;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+    }
+
+    private static final class Rule {
+        private final String method;
+        private final Access access;
+        private final Rule next;
+
+        private Rule(String method, Access access, Rule next) {
+            this.method = method;
+            this.access = access;
+            this.next = next;
+        }
+
+        // A rule for the request's method wins over a rule for every method
+        private static Access resolve(Rule rule, String method) {
+            Access anyMethod = null;
+            for (Rule current = rule; current != null; current = current.next) {
+                if (current.method == null) {
+                    if (anyMethod == null) {
+                        anyMethod = current.access;
+                    }
+                } else if (current.method.equalsIgnoreCase(method)) {
+                    return current.access;
+                }
+            }
+            return anyMethod;
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package org.tukma.config;
 
+import jakarta.servlet.MultipartConfigElement;
+import org.apache.catalina.valves.RemoteIpValve;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final Environment environment;
+
+    public WebConfig(Environment environment) {
+        this.environment = environment;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")  // Apply to all endpoints
@@ -16,5 +31,50 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true);
     }
 
+    /**
+     * Async requests (resume uploads, SSE streams) outlive the container's 30 second default.
+     * Override with `tukma.web.async-timeout-seconds`.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(
+                environment.getProperty("tukma.web.async-timeout-seconds", Long.class, 120L) * 1000);
+    }
+
+    /**
+     * Multipart parts are always spooled to disk, never buffered in memory, and the servlet
+     * limits follow `tukma.resume.upload.max-bytes` so oversized uploads are cut off while
+     * still being read.
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement() {
+        long maxBytes = environment.getProperty("tukma.resume.upload.max-bytes", Long.class, 10L * 1024 * 1024);
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setFileSizeThreshold(DataSize.ofBytes(0));
+        factory.setMaxFileSize(DataSize.ofBytes(maxBytes));
+        // Room for the keyword fields and part headers
+        factory.setMaxRequestSize(DataSize.ofBytes(maxBytes + 64 * 1024));
+        return factory.createMultipartConfig();
+    }
 
+    /**
+     * Resolves the client address and scheme from X-Forwarded-For and X-Forwarded-Proto, so
+     * `request.getRemoteAddr()` is the caller and not the load balancer. The headers are only
+     * honoured when the connection comes from a trusted proxy: Tomcat's private and loopback
+     * ranges by default, or the regex in `tukma.web.trusted-proxies`. Anything else could spoof
+     * the address the login rate limit is keyed by.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> forwardedHeaders() {
+        String trustedProxies = environment.getProperty("tukma.web.trusted-proxies");
+        return factory -> {
+            RemoteIpValve valve = new RemoteIpValve();
+            valve.setRemoteIpHeader("X-Forwarded-For");
+            valve.setProtocolHeader("X-Forwarded-Proto");
+            if (trustedProxies != null && !trustedProxies.isBlank()) {
+                valve.setInternalProxies(trustedProxies);
+            }
+            factory.addEngineValves(valve);
+        };
+    }
 }
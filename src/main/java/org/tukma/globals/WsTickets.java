@@ -1,46 +1,167 @@
 package org.tukma.globals;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.tukma.config.CacheInvalidationBus;
+import org.tukma.config.RedisGateway;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Configuration
 public class WsTickets {
 
-    private static JedisPool jedisPool;
+    private static RedisGateway redis;
 
-    @Value("${spring.data.redis.url}")
-    public void setRedisUrl(String redisUrl) {
-        jedisPool = new JedisPool(redisUrl);
+    @Autowired
+    public void setRedisGateway(RedisGateway gateway) {
+        redis = gateway;
     }
 
     private static final int EXPIRATION_TIME = (int) TimeUnit.HOURS.toSeconds(1);
 
+    private static final String CACHE_NAME = "ws-tickets";
+
+    /**
+     * Owner ids of tickets recently seen valid, so polling `/check-ws-connection` stays in memory.
+     * Entries are dropped on local writes, on invalidations published by other instances and on
+     * Redis expiry events. A PEEK answered from here can therefore report a ticket as valid after
+     * another instance removed it for as long as the invalidation takes to arrive over pub/sub.
+     * The cache is only trusted while {@link CacheInvalidationBus#isHealthy()}, so a silently dropped
+     * subscription stretches that window to at most three bus heartbeats (15 seconds by default);
+     * past that, PEEK goes to Redis and the cache is cleared when the bus recovers. CONSUME and
+     * EXTEND always go to Redis.
+     */
+    private static final Cache<String, Long> nearCache = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    // Bumped on every invalidation so a lookup racing a removal does not re-cache the removed ticket
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private static CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    public void setInvalidationBus(CacheInvalidationBus bus) {
+        invalidationBus = bus;
+        bus.register(CACHE_NAME, WsTickets::invalidateLocally, true);
+        bus.onRecovery(WsTickets::invalidateAllLocally);
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, nearCache, CACHE_NAME);
+    }
+
+    /**
+     * Validates the ticket owner and applies the requested action in a single round trip.
+     * Returns 1 for a valid ticket, 0 when it does not exist and -1 when it belongs to someone else.
+     * KEYS[1] = ticket, ARGV[1] = expected owner id, ARGV[2] = action, ARGV[3] = TTL for extend.
+     */
+    private static final RedisScript<Long> CHECK_TICKET_SCRIPT = RedisScript.of(
+            "local owner = redis.call('GET', KEYS[1]) " +
+            "if not owner then return 0 end " +
+            "if owner ~= ARGV[1] then return -1 end " +
+            "if ARGV[2] == 'CONSUME' then redis.call('DEL', KEYS[1]) " +
+            "elseif ARGV[2] == 'EXTEND' then redis.call('EXPIRE', KEYS[1], ARGV[3]) end " +
+            "return 1", Long.class);
+
+    public enum TicketStatus {
+        VALID,      // ticket exists and belongs to the caller
+        MISSING,    // ticket never existed, expired or was already consumed
+        FOREIGN     // ticket exists but belongs to another user
+    }
+
+    public enum TicketAction {
+        PEEK,       // validate only
+        CONSUME,    // validate and delete, so a ticket can be redeemed once
+        EXTEND      // validate and reset the expiration
+    }
+
     public static void addTicket(String ticket, long timestamp) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.setex(ticket, EXPIRATION_TIME, String.valueOf(timestamp));
-        }
+        redis.execute("tickets.add", connection -> connection.setEx(ticket, EXPIRATION_TIME, String.valueOf(timestamp)));
+        invalidate(ticket);
     }
 
     public static Long getTicket(String ticket) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            String value = jedis.get(ticket);
-            return value != null ? Long.parseLong(value) : null;
+        String value = redis.execute("tickets.get", connection -> connection.get(ticket));
+        return value != null ? Long.parseLong(value) : null;
+    }
+
+    /**
+     * Checks that a ticket belongs to the given user and optionally consumes or extends it.
+     * The check and the action run atomically on the server, so two handshakes racing on the
+     * same ticket cannot both consume it.
+     *
+     * @param ticket  The ticket string
+     * @param ownerId The id of the user presenting the ticket
+     * @param action  What to do with a valid ticket
+     * @return The ticket status
+     */
+    public static TicketStatus checkTicket(String ticket, long ownerId, TicketAction action) {
+        if (action == TicketAction.PEEK && nearCacheTrusted()) {
+            Long cachedOwner = nearCache.getIfPresent(ticket);
+            if (cachedOwner != null) {
+                return cachedOwner == ownerId ? TicketStatus.VALID : TicketStatus.FOREIGN;
+            }
+        }
+        long generation = invalidations.get();
+        long code = redis.script("tickets.check", CHECK_TICKET_SCRIPT, List.of(ticket),
+                String.valueOf(ownerId), action.name(), String.valueOf(EXPIRATION_TIME));
+        if (code <= 0) {
+            return code == 0 ? TicketStatus.MISSING : TicketStatus.FOREIGN;
         }
+        if (action == TicketAction.CONSUME) {
+            invalidate(ticket);
+        } else {
+            cacheIfUnchanged(ticket, ownerId, generation);
+        }
+        return TicketStatus.VALID;
     }
 
     public static void removeTicket(String ticket) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.del(ticket);
-        }
+        redis.execute("tickets.remove", connection -> connection.del(ticket));
+        invalidate(ticket);
     }
 
     public static boolean hasTicket(String ticket) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.exists(ticket);
+        return Boolean.TRUE.equals(redis.execute("tickets.exists", connection -> connection.exists(ticket)));
+    }
+
+    private static boolean nearCacheTrusted() {
+        return invalidationBus != null && invalidationBus.isHealthy();
+    }
+
+    private static void cacheIfUnchanged(String ticket, long ownerId, long generation) {
+        synchronized (nearCache) {
+            if (invalidations.get() == generation && nearCacheTrusted()) {
+                nearCache.put(ticket, ownerId);
+            }
+        }
+    }
+
+    private static void invalidate(String ticket) {
+        invalidateLocally(ticket);
+        if (invalidationBus != null) {
+            invalidationBus.publish(CACHE_NAME, ticket);
+        }
+    }
+
+    private static void invalidateLocally(String ticket) {
+        synchronized (nearCache) {
+            invalidations.incrementAndGet();
+            nearCache.invalidate(ticket);
+        }
+    }
+
+    private static void invalidateAllLocally() {
+        synchronized (nearCache) {
+            invalidations.incrementAndGet();
+            nearCache.invalidateAll();
         }
     }
-}
\ No newline at end of file
+}
@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -543,8 +544,7 @@ public class InterviewController {
                 successCount++;
 
             } catch (Exception e) {
-                logger.severe("Unexpected error processing user ID " + userId + ": " + e.getMessage());
-                e.printStackTrace();
+                logger.log(Level.SEVERE, "Unexpected error processing user ID " + userId + ": " + e.getMessage(), e);
                 errorCount++;
                 errors.put(userId, "Internal server error: " + e.getMessage());
             }
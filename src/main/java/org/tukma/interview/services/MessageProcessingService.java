@@ -13,6 +13,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.Map;
 import java.util.HashMap;
@@ -232,8 +233,7 @@ public class MessageProcessingService {
                 try {
                     return gradeTechnicalMessages(technicalMessages, openAIKey);
                 } catch (Exception e) {
-                    logger.severe("Error in async technical grading: " + e.getMessage());
-                    e.printStackTrace();
+                    logger.log(Level.SEVERE, "Error in async technical grading: " + e.getMessage(), e);
                     return Map.of("error", "Failed to process technical messages: " + e.getMessage());
                 }
             }, executorService);
@@ -252,8 +252,7 @@ public class MessageProcessingService {
                         return Map.of("message", "No standard questions to grade communication skills");
                     }
                 } catch (Exception e) {
-                    logger.severe("Error in async communication grading: " + e.getMessage());
-                    e.printStackTrace();
+                    logger.log(Level.SEVERE, "Error in async communication grading: " + e.getMessage(), e);
                     return Map.of("error", "Failed to process communication messages: " + e.getMessage());
                 }
             }, executorService);
@@ -285,8 +284,7 @@ public class MessageProcessingService {
             return result;
 
         } catch (Exception e) {
-            logger.severe("Error processing messages: " + e.getMessage());
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "Error processing messages: " + e.getMessage(), e);
 
             // Fallback: return just the original messages if processing fails
             Map<String, Object> result = new HashMap<>();
@@ -941,8 +939,7 @@ public class MessageProcessingService {
             logger.info("Stored " + gradedResponses.size() + " technical results for user " + user.getUsername());
 
         } catch (Exception e) {
-            logger.severe("Error storing technical results: " + e.getMessage());
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "Error storing technical results: " + e.getMessage(), e);
         }
     }
 
@@ -1102,8 +1099,7 @@ public class MessageProcessingService {
             logger.info("Stored communication results for user " + user.getUsername());
 
         } catch (Exception e) {
-            logger.severe("Error storing communication results: " + e.getMessage());
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "Error storing communication results: " + e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,73 @@
+package org.tukma.interviewer;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Audio formats the interviewer can synthesize speech in.
+ * The value is what the OpenAI speech endpoint expects as `response_format`.
+ */
+public enum AudioFormat {
+    OPUS("opus", "audio/ogg"),
+    AAC("aac", "audio/aac"),
+    MP3("mp3", "audio/mpeg");
+
+    // Server preference when the client can play more than one format, smallest payload first
+    private static final List<AudioFormat> PREFERENCE = List.of(OPUS, AAC, MP3);
+
+    private final String value;
+    private final String mimeType;
+
+    AudioFormat(String value, String mimeType) {
+        this.value = value;
+        this.mimeType = mimeType;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Resolves a format from its wire value, falling back to MP3 for unknown or missing values.
+     *
+     * @param value The format name (e.g. "opus")
+     * @return The matching format, or MP3
+     */
+    public static AudioFormat fromValue(String value) {
+        if (value != null) {
+            for (AudioFormat format : values()) {
+                if (format.value.equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+        }
+        return MP3;
+    }
+
+    /**
+     * Picks the audio format for a session.
+     * Clients that do not say what they can play get MP3, so existing clients keep working.
+     * When the client lists what it can play, the smallest format in that list wins,
+     * and MP3 is the fallback if nothing matches.
+     *
+     * @param offered Formats the client says it can play, or null if it did not say
+     * @return The negotiated format
+     */
+    public static AudioFormat negotiate(Collection<?> offered) {
+        if (offered == null || offered.isEmpty()) {
+            return MP3;
+        }
+        for (AudioFormat candidate : PREFERENCE) {
+            for (Object item : offered) {
+                if (item != null && candidate.value.equalsIgnoreCase(item.toString().trim())) {
+                    return candidate;
+                }
+            }
+        }
+        return MP3;
+    }
+}
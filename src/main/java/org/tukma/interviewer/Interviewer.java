@@ -5,9 +5,13 @@ import org.springframework.core.env.Environment;
 import okhttp3.*;
 import java.io.IOException;
 import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class Interviewer {
 
+    private static final Logger logger = Logger.getLogger(Interviewer.class.getName());
+
     private static final String LLM_ENDPOINT = "https://api.openai.com/v1/chat/completions";
     private final Environment environment;
     private String company;
@@ -64,14 +68,15 @@ public class Interviewer {
         assistantMessage.put("role", "assistant");
         assistantMessage.put("content", response);
         conversationHistory.add(assistantMessage);
-        System.out.println("FINISH API QUERY");
         return response;
     }
 
     private String sendRequestToLLM() throws IOException {
         // Create request payload using HashMap
         HashMap<String, Object> requestPayload = new HashMap<>();
-        System.out.println("CONVERSATION SIZE: " + conversationHistory.size());
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "Querying LLM with {0} messages", conversationHistory.size());
+        }
         if (conversationHistory.size() % 15 == 0 && !conversationHistory.isEmpty()) {
             conversationHistory.add((HashMap<String, String>) Map.of("role", "system", "content", "Maybe consider moving to technical after this? If you have finished technical, consider ending the interview sooner or later."));
         }
@@ -86,7 +91,7 @@ public class Interviewer {
         );
 
         Request request = new Request.Builder()
-                .url(LLM_ENDPOINT)
+                .url(getLlmEndpoint())
                 .addHeader("Authorization", "Bearer " + getAPIKey())
                 .addHeader("Content-Type", "application/json")
                 .post(body)
@@ -94,7 +99,7 @@ public class Interviewer {
 
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
-                System.err.println(response);
+                logger.log(Level.WARNING, "LLM request failed: {0}", response);
                 throw new IOException("Unexpected response: " + response);
             }
 
@@ -113,6 +118,11 @@ public class Interviewer {
         return environment.getProperty("openai.key");
     }
 
+    // Overridable so the session replayer can point the interviewer at a local stub
+    public String getLlmEndpoint() {
+        return environment.getProperty("openai.chat.url", LLM_ENDPOINT);
+    }
+
     public void endInterview() {
         hasStartedInterview = false;
 
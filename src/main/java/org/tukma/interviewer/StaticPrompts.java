@@ -1,9 +1,13 @@
 package org.tukma.interviewer;
 
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class StaticPrompts {
 
+    private static final Logger logger = Logger.getLogger(StaticPrompts.class.getName());
+
     private static final String NOT_FORMATTED = ""+
             "You are a technical interviewer for a %s position. You are strict, but friendly. Your name is Tikki, and you’re conducting an interview for an %s role at %s.\n" +
             "Your goal is to make this interview feel natural, casual, and human-like—not a rigid, robotic Q&A session. You’re a talkative, friendly interviewer who genuinely wants to learn more about the interviewee. You’re engaged, expressive, and sometimes ramble a bit to keep the conversation flowing smoothly. However, you have key checkpoints that you need to finish, and you must be quick to move the topic, yet still interested.\n" +
@@ -54,7 +58,10 @@ public class StaticPrompts {
             " The schema is basically {\"messages\": [\"Your message here\"]}." ;
 
     public static String generateSystemPrompt(List<String> questions, String company, String role) {
-        System.out.println(String.format(NOT_FORMATTED, role, role, company,questions.toString()));
-        return String.format(NOT_FORMATTED, role, role, company, questions.toString());
+        String prompt = String.format(NOT_FORMATTED, role, role, company, questions.toString());
+        if (logger.isLoggable(Level.FINEST)) {
+            logger.log(Level.FINEST, "System prompt for {0} at {1}: {2}", new Object[]{role, company, prompt});
+        }
+        return prompt;
     }
 }
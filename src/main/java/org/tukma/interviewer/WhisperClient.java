@@ -1,6 +1,8 @@
 package org.tukma.interviewer;
 
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.shaded.gson.Gson;
 import okhttp3.*;
 import org.springframework.core.env.Environment;
@@ -13,17 +15,33 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class WhisperClient {
 
     Environment environment;
     private static final String API_URL = "https://api.openai.com/v1/audio/speech";
+    private static final String MODEL = "tts-1";
+    private static final String VOICE = "sage";
+    private static final long MAX_CACHED_AUDIO_BYTES = 32L * 1024 * 1024;
+
+    // Synthesized audio keyed by format, voice and text, so repeated lines skip the TTS round trip
+    private final Cache<String, byte[]> speechCache = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_AUDIO_BYTES)
+            .weigher((String key, byte[] audio) -> audio.length)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
 
     public String getAPIKey() {
         return environment.getProperty("openai.key");
     }
 
+    // Overridable so the session replayer can point speech synthesis at a local stub
+    public String getApiUrl() {
+        return environment.getProperty("openai.speech.url", API_URL);
+    }
+
 
     public WhisperClient(Environment environment) {
         this.environment = environment;
@@ -31,12 +49,29 @@ public class WhisperClient {
 
 
     public CompletableFuture<byte[]> generateSpeech(String text) {
+        return generateSpeech(text, AudioFormat.MP3);
+    }
+
+    /**
+     * Synthesizes speech in the format negotiated for the session.
+     *
+     * @param text   The text to read aloud
+     * @param format The audio format the client will play
+     * @return Future holding the encoded audio bytes
+     */
+    public CompletableFuture<byte[]> generateSpeech(String text, AudioFormat format) {
+        String cacheKey = speechCacheKey(text, format);
+        byte[] cached = speechCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
         return CompletableFuture.supplyAsync(() -> {
             OkHttpClient client = new OkHttpClient();
             Map<String, Object> params = new HashMap<>();
-            params.put("model", "tts-1");
+            params.put("model", MODEL);
             params.put("input", text);
-            params.put("voice", "sage");
+            params.put("voice", VOICE);
+            params.put("response_format", format.getValue());
 
             Gson gson = new Gson();
             String json = gson.toJson(params);
@@ -46,7 +81,7 @@ public class WhisperClient {
             );
 
             Request request = new Request.Builder()
-                    .url(API_URL)
+                    .url(getApiUrl())
                     .addHeader("Authorization", "Bearer " + getAPIKey())
                     .post(body)
                     .build();
@@ -64,7 +99,9 @@ public class WhisperClient {
                     while ((bytesRead = inputStream.read(buffer)) != -1) {
                         outputStream.write(buffer, 0, bytesRead);
                     }
-                    return outputStream.toByteArray();
+                    byte[] audio = outputStream.toByteArray();
+                    speechCache.put(cacheKey, audio);
+                    return audio;
                 }
             } catch (IOException e) {
                 throw new RuntimeException("Error generating speech", e);
@@ -72,7 +109,8 @@ public class WhisperClient {
         });
     }
 
-
-
+    private static String speechCacheKey(String text, AudioFormat format) {
+        return format.getValue() + "|" + VOICE + "|" + text;
+    }
 
 }
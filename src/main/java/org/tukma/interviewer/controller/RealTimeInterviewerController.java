@@ -61,14 +61,13 @@ public class RealTimeInterviewerController extends BinaryWebSocketHandler{
     // check initiation-status of websocket connection
     @GetMapping("/check-ws-connection")
     public ResponseEntity<?> checkWsConnection(@RequestParam String ticket){
-        if(WsTickets.getTicket(ticket) != null){
-            var requestingEntity = (UserEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            if (!WsTickets.getTicket(ticket).equals( requestingEntity.getId())) {
-                return ResponseEntity.ok(Map.of("status", "unauthorized"));
-            }
-            return ResponseEntity.ok(Map.of("status", "initiated"));
-        }
-        return ResponseEntity.ok(Map.of("status", "not-initiated"));
+        var requestingEntity = (UserEntity)SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        // Owner check and lookup happen in one Redis round trip; polling must not consume the ticket
+        return switch (WsTickets.checkTicket(ticket, requestingEntity.getId(), WsTickets.TicketAction.PEEK)) {
+            case VALID -> ResponseEntity.ok(Map.of("status", "initiated"));
+            case FOREIGN -> ResponseEntity.ok(Map.of("status", "unauthorized"));
+            case MISSING -> ResponseEntity.ok(Map.of("status", "not-initiated"));
+        };
     }
 
 
@@ -3,6 +3,7 @@ package org.tukma.interviewer.dto;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.tukma.interviewer.AudioFormat;
 
 import java.io.Serializable;
 import java.util.List;
@@ -16,16 +17,23 @@ public class InterviewState implements Serializable {
     private final List<String> technicalQuestions;
     private final long creationTime;
     private final String conversationHistory;
+    private final String audioFormat; // negotiated TTS format for the session, see AudioFormat
 
     public InterviewState() {
         this(null, null, null, null);
     }
 
     public InterviewState(String company, String role, List<String> technicalQuestions, String conversationHistory) {
+        this(company, role, technicalQuestions, conversationHistory, AudioFormat.MP3.getValue());
+    }
+
+    public InterviewState(String company, String role, List<String> technicalQuestions, String conversationHistory,
+                          String audioFormat) {
         this.company = company;
         this.role = role;
         this.technicalQuestions = technicalQuestions;
         this.conversationHistory = conversationHistory;
+        this.audioFormat = audioFormat;
         this.creationTime = System.currentTimeMillis();
     }
 
@@ -49,4 +57,8 @@ public class InterviewState implements Serializable {
     public String getConversationHistory() {
         return conversationHistory;
     }
+
+    public String getAudioFormat() {
+        return audioFormat;
+    }
 }
\ No newline at end of file
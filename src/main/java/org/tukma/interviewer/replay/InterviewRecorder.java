@@ -0,0 +1,92 @@
+package org.tukma.interviewer.replay;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records live interview sessions to disk when `tukma.replay.record-dir` is set.
+ * With the property unset every method is a no-op and {@link #get(String)} returns null,
+ * so the interview paths only pay for a map lookup. With it set, events are appended by a
+ * single background writer, so recording never adds disk I/O to a response.
+ */
+@Component
+public class InterviewRecorder {
+
+    private static final Logger logger = Logger.getLogger(InterviewRecorder.class.getName());
+
+    private final Path recordDir;
+
+    // One thread appends for every session; when the disk falls this far behind, events are dropped
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(10_000),
+            new ThreadFactoryBuilder().setNameFormat("interview-recorder").setDaemon(true).build(),
+            (task, executor) -> logger.warning("Interview recorder is behind, dropping a recorded event"));
+
+    // Sessions live as long as the interview state in Redis (one hour of inactivity)
+    private final Cache<String, SessionRecorder> sessions = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    public InterviewRecorder(Environment environment) {
+        String dir = environment.getProperty("tukma.replay.record-dir");
+        this.recordDir = (dir == null || dir.isBlank()) ? null : Paths.get(dir);
+    }
+
+    public boolean isEnabled() {
+        return recordDir != null;
+    }
+
+    /**
+     * Starts a fresh recording for a session, replacing any previous one under the same key.
+     *
+     * @param sessionKey Key identifying the interview (the Redis state key)
+     * @param header     Interview details needed to replay the session
+     * @return The new recorder, or null when recording is disabled
+     */
+    public SessionRecorder begin(String sessionKey, Map<String, Object> header) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Path file = recordDir.resolve(fileName(sessionKey, System.currentTimeMillis()));
+        writer.execute(() -> {
+            try {
+                Files.createDirectories(recordDir);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not create interview recording directory " + recordDir, e);
+            }
+        });
+        SessionRecorder recorder = new SessionRecorder(header, file, writer);
+        sessions.put(sessionKey, recorder);
+        return recorder;
+    }
+
+    public SessionRecorder get(String sessionKey) {
+        return isEnabled() ? sessions.getIfPresent(sessionKey) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let queued events reach the disk before the context goes away
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static String fileName(String sessionKey, long startedAtMillis) {
+        return sessionKey.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + startedAtMillis + ".tukrec";
+    }
+}
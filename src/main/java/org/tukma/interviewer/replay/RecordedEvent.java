@@ -0,0 +1,49 @@
+package org.tukma.interviewer.replay;
+
+import java.util.Map;
+
+/**
+ * A single timestamped event in a recorded interview session.
+ * Offsets are measured from the start of the recording, so two recordings can be compared
+ * regardless of when they were captured.
+ */
+public class RecordedEvent {
+
+    public enum Kind {
+        INBOUND,   // message or request payload from the candidate's client
+        OUTBOUND,  // SSE event or socket message sent back to the client
+        LLM,       // upstream chat completion, matched to the turn that triggered it
+        TTS        // upstream speech synthesis, keyed by text and format
+    }
+
+    private Kind kind;
+    private long offsetMillis;
+    private long durationMillis; // upstream latency for LLM/TTS events, 0 otherwise
+    private Map<String, Object> data;
+
+    public RecordedEvent() {
+    }
+
+    public RecordedEvent(Kind kind, long offsetMillis, long durationMillis, Map<String, Object> data) {
+        this.kind = kind;
+        this.offsetMillis = offsetMillis;
+        this.durationMillis = durationMillis;
+        this.data = data;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+}
@@ -0,0 +1,122 @@
+package org.tukma.interviewer.replay;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import org.tukma.interviewer.AudioFormat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Captures the traffic of one interview session for later replay.
+ *
+ * Every event is appended to the session file as it happens, on the writer executor, so the
+ * request threads and TTS callbacks that report events never touch the disk. TTS audio is stored
+ * once per distinct clip in the session's audio directory, named by its SHA-256, and the event only
+ * carries the digest. Events are handed to the writer under a lock, so the file keeps the order
+ * in which they were reported.
+ */
+public class SessionRecorder {
+
+    private static final Logger logger = Logger.getLogger(SessionRecorder.class.getName());
+
+    private static final Gson gson = new Gson();
+
+    private final long startNanos = System.nanoTime();
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final Path file;
+    private final Path audioDir;
+    private final Executor writer;
+
+    /**
+     * @param header Interview details needed to replay the session
+     * @param file   Session file; events are appended to it
+     * @param writer Executor running one task at a time, shared by all sessions
+     */
+    public SessionRecorder(Map<String, Object> header, Path file, Executor writer) {
+        this.file = file;
+        this.audioDir = SessionRecording.audioDir(file);
+        this.writer = writer;
+
+        Map<String, Object> line = new HashMap<>(header);
+        line.put("formatVersion", SessionRecording.FORMAT_VERSION);
+        line.put("recordedAt", startedAtMillis);
+        String json = gson.toJson(line);
+        writer.execute(() -> write(json, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * Milliseconds since the recording started. Callers measuring upstream latency
+     * take this before the call so the event lands at the moment the call began.
+     */
+    public long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public void inbound(Map<String, Object> payload) {
+        append(new RecordedEvent(RecordedEvent.Kind.INBOUND, now(), 0, new HashMap<>(payload)), null);
+    }
+
+    public void outbound(Map<String, Object> payload) {
+        append(new RecordedEvent(RecordedEvent.Kind.OUTBOUND, now(), 0, new HashMap<>(payload)), null);
+    }
+
+    public void llm(String response, long startedAtMillis) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("content", response);
+        append(new RecordedEvent(RecordedEvent.Kind.LLM, startedAtMillis, now() - startedAtMillis, data), null);
+    }
+
+    public void tts(String text, AudioFormat format, byte[] audio, long startedAtMillis) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("text", text);
+        data.put("format", format.getValue());
+        data.put("audioBytes", audio.length);
+        append(new RecordedEvent(RecordedEvent.Kind.TTS, startedAtMillis, now() - startedAtMillis, data), audio);
+    }
+
+    // The digest is taken on the writer too, so a TTS callback only pays for building the event
+    private synchronized void append(RecordedEvent event, byte[] audio) {
+        writer.execute(() -> {
+            if (audio != null) {
+                String digest = Hashing.sha256().hashBytes(audio).toString();
+                event.getData().put("audioSha256", digest);
+                writeAudio(digest + "." + event.getData().get("format"), audio);
+            }
+            write(gson.toJson(event), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        });
+    }
+
+    private void writeAudio(String name, byte[] audio) {
+        Path target = audioDir.resolve(name);
+        try {
+            if (!Files.exists(target)) {
+                Files.createDirectories(audioDir);
+                Files.write(target, audio);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write recorded audio " + target, e);
+        }
+    }
+
+    private void write(String line, StandardOpenOption... options) {
+        try {
+            Files.writeString(file, line + "\n", StandardCharsets.UTF_8, options);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not append to interview recording " + file, e);
+        }
+    }
+}
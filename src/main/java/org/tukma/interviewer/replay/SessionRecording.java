@@ -0,0 +1,112 @@
+package org.tukma.interviewer.replay;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A recorded interview session: a header describing the interview and its timestamped events.
+ *
+ * On disk this is JSON lines. The first line is the header and every following line is one
+ * {@link RecordedEvent}, so a live session can be appended to and inspected with tail.
+ * TTS events carry the SHA-256 of their audio, which is stored as a plain file under
+ * {@link #audioDir(Path)} rather than inline, keeping the session file small.
+ */
+public class SessionRecording {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Gson gson = new Gson();
+
+    private final Map<String, Object> header;
+    private final List<RecordedEvent> events;
+    // File the recording was read from, used to locate its audio
+    private final Path source;
+
+    public SessionRecording(Map<String, Object> header, List<RecordedEvent> events) {
+        this(header, events, null);
+    }
+
+    private SessionRecording(Map<String, Object> header, List<RecordedEvent> events, Path source) {
+        this.header = header;
+        this.events = events;
+        this.source = source;
+    }
+
+    public Map<String, Object> getHeader() {
+        return header;
+    }
+
+    public List<RecordedEvent> getEvents() {
+        return events;
+    }
+
+    public List<RecordedEvent> getEvents(RecordedEvent.Kind kind) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getKind() == kind) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Directory holding the TTS audio of a session, next to its session file.
+     */
+    public static Path audioDir(Path recording) {
+        String name = recording.getFileName().toString();
+        if (name.endsWith(".tukrec")) {
+            name = name.substring(0, name.length() - ".tukrec".length());
+        }
+        return recording.resolveSibling(name + ".audio");
+    }
+
+    /**
+     * Loads the audio a TTS event answered with.
+     *
+     * @param event A TTS event of this recording
+     * @return The recorded audio bytes
+     * @throws IOException if the audio file is missing or unreadable
+     */
+    public byte[] audio(RecordedEvent event) throws IOException {
+        if (source == null) {
+            throw new IOException("Recording was not read from a file, so its audio cannot be located");
+        }
+        return Files.readAllBytes(audioDir(source).resolve(
+                event.getData().get("audioSha256") + "." + event.getData().get("format")));
+    }
+
+    /**
+     * Reads a recording.
+     *
+     * @param path Recording file
+     * @return The parsed recording
+     * @throws IOException if the file cannot be read or has no header
+     */
+    public static SessionRecording read(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("Recording is empty: " + path);
+            }
+            Map<String, Object> header = gson.fromJson(headerLine, new TypeToken<Map<String, Object>>(){}.getType());
+            List<RecordedEvent> events = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    events.add(gson.fromJson(line, RecordedEvent.class));
+                }
+            }
+            return new SessionRecording(header, events, path);
+        }
+    }
+}
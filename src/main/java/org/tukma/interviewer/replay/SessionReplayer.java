@@ -0,0 +1,171 @@
+package org.tukma.interviewer.replay;
+
+import com.google.gson.Gson;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.tukma.interviewer.AudioFormat;
+import org.tukma.interviewer.Interviewer;
+import org.tukma.interviewer.WhisperClient;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded interview against local LLM/TTS stubs and reports per-step latency.
+ *
+ * Each inbound step goes through the same Interviewer and WhisperClient calls as the
+ * debug interview endpoints, with the OpenAI URLs pointed at an {@link UpstreamStub}
+ * that answers with the recorded payloads after the recorded delays. Comparing the
+ * report of two builds on the same recording shows latency regressions on real traffic.
+ *
+ * Usage: SessionReplayer &lt;recording.tukrec&gt; [--no-delay]
+ */
+public class SessionReplayer {
+
+    private static final Gson gson = new Gson();
+
+    private final SessionRecording recording;
+    private final StandardEnvironment environment;
+
+    public SessionReplayer(SessionRecording recording, StandardEnvironment environment) {
+        this.recording = recording;
+        this.environment = environment;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SessionReplayer <recording.tukrec> [--no-delay]");
+            System.exit(2);
+        }
+        SessionRecording recording = SessionRecording.read(Paths.get(args[0]));
+        boolean recordedDelays = !Arrays.asList(args).contains("--no-delay");
+
+        try (UpstreamStub stub = UpstreamStub.start(recording, recordedDelays)) {
+            StandardEnvironment environment = new StandardEnvironment();
+            environment.getPropertySources().addFirst(new MapPropertySource("replay", Map.of(
+                    "openai.key", "replay",
+                    "openai.chat.url", stub.url(UpstreamStub.CHAT_PATH),
+                    "openai.speech.url", stub.url(UpstreamStub.SPEECH_PATH)
+            )));
+
+            List<StepTiming> timings = new SessionReplayer(recording, environment).replay();
+
+            System.out.printf("%-5s %-6s %16s %16s %16s %16s%n",
+                    "step", "type", "ttfa-ms", "ttfa-rec-ms", "turn-ms", "turn-rec-ms");
+            for (StepTiming timing : timings) {
+                System.out.printf("%-5d %-6s %16d %16d %16d %16d%n", timing.step, timing.type,
+                        timing.timeToFirstAudio, timing.recordedTimeToFirstAudio,
+                        timing.turnLatency, timing.recordedTurnLatency);
+            }
+        }
+    }
+
+    /**
+     * Drives every recorded inbound step and measures it.
+     *
+     * @return One timing per inbound step, in recorded order
+     */
+    public List<StepTiming> replay() throws Exception {
+        Map<String, Object> header = recording.getHeader();
+        String company = (String) header.get("company");
+        String role = (String) header.get("role");
+        List<String> technicalQuestions = (List<String>) header.get("technicalQuestions");
+        AudioFormat audioFormat = AudioFormat.fromValue((String) header.get("audioFormat"));
+
+        WhisperClient whisperClient = new WhisperClient(environment);
+        List<RecordedEvent> events = recording.getEvents();
+        List<StepTiming> timings = new ArrayList<>();
+
+        int step = 0;
+        for (int i = 0; i < events.size(); i++) {
+            RecordedEvent inbound = events.get(i);
+            if (inbound.getKind() != RecordedEvent.Kind.INBOUND) {
+                continue;
+            }
+            String type = String.valueOf(inbound.getData().get("type"));
+            long started = System.nanoTime();
+
+            // Mirrors TestAndDebugging: every turn rebuilds the interviewer from the saved state
+            Interviewer interviewer = new Interviewer(environment);
+            String response = interviewer.startInterview(company, role, technicalQuestions);
+            if ("ask".equals(type)) {
+                response = interviewer.askQuestion((String) inbound.getData().get("response"));
+            }
+
+            List<String> messages = extractMessages(response);
+            List<CompletableFuture<byte[]>> speech = new ArrayList<>();
+            for (String message : messages) {
+                speech.add(whisperClient.generateSpeech(message, audioFormat));
+            }
+            long firstAudio = started;
+            if (!speech.isEmpty()) {
+                CompletableFuture.anyOf(speech.toArray(new CompletableFuture[0])).join();
+                firstAudio = System.nanoTime();
+                CompletableFuture.allOf(speech.toArray(new CompletableFuture[0])).join();
+            }
+            long finished = System.nanoTime();
+
+            StepTiming timing = new StepTiming(step++, type,
+                    TimeUnit.NANOSECONDS.toMillis(firstAudio - started),
+                    TimeUnit.NANOSECONDS.toMillis(finished - started));
+            recordedTimings(events, i, timing);
+            timings.add(timing);
+        }
+        return timings;
+    }
+
+    // Outbound events between this inbound step and the next one belong to this step
+    private static void recordedTimings(List<RecordedEvent> events, int inboundIndex, StepTiming timing) {
+        long inboundAt = events.get(inboundIndex).getOffsetMillis();
+        long first = -1;
+        long last = -1;
+        for (int j = inboundIndex + 1; j < events.size(); j++) {
+            RecordedEvent event = events.get(j);
+            if (event.getKind() == RecordedEvent.Kind.INBOUND) {
+                break;
+            }
+            if (event.getKind() == RecordedEvent.Kind.OUTBOUND) {
+                if (first < 0) {
+                    first = event.getOffsetMillis() - inboundAt;
+                }
+                last = event.getOffsetMillis() - inboundAt;
+            }
+        }
+        timing.recordedTimeToFirstAudio = first;
+        timing.recordedTurnLatency = last;
+    }
+
+    private static List<String> extractMessages(String jsonResponse) {
+        try {
+            Map<String, Object> parsedResponse = gson.fromJson(jsonResponse, Map.class);
+            return (List<String>) parsedResponse.get("messages");
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Latency of one replayed step next to what was measured when it was recorded.
+     * Recorded values are -1 when the original step produced no audio.
+     */
+    public static class StepTiming {
+        public final int step;
+        public final String type;
+        public final long timeToFirstAudio;
+        public final long turnLatency;
+        public long recordedTimeToFirstAudio;
+        public long recordedTurnLatency;
+
+        StepTiming(int step, String type, long timeToFirstAudio, long turnLatency) {
+            this.step = step;
+            this.type = type;
+            this.timeToFirstAudio = timeToFirstAudio;
+            this.turnLatency = turnLatency;
+        }
+    }
+}
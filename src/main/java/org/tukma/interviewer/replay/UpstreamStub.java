@@ -0,0 +1,140 @@
+package org.tukma.interviewer.replay;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the OpenAI chat and speech endpoints during a replay.
+ * Chat completions are answered in recorded order; speech requests are matched by text and format.
+ * Each answer is held back by the latency recorded for it, so the replay sees realistic upstream timing.
+ */
+public class UpstreamStub implements AutoCloseable {
+
+    public static final String CHAT_PATH = "/v1/chat/completions";
+    public static final String SPEECH_PATH = "/v1/audio/speech";
+
+    private static final Gson gson = new Gson();
+
+    private final SessionRecording recording;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean recordedDelays;
+    private final Deque<RecordedEvent> llmResponses = new ArrayDeque<>();
+    private final Map<String, Deque<RecordedEvent>> speechResponses = new HashMap<>();
+
+    private UpstreamStub(SessionRecording recording, boolean recordedDelays) throws IOException {
+        this.recording = recording;
+        this.recordedDelays = recordedDelays;
+        llmResponses.addAll(recording.getEvents(RecordedEvent.Kind.LLM));
+        for (RecordedEvent event : recording.getEvents(RecordedEvent.Kind.TTS)) {
+            String key = speechKey((String) event.getData().get("text"), (String) event.getData().get("format"));
+            speechResponses.computeIfAbsent(key, k -> new ArrayDeque<>()).add(event);
+        }
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext(CHAT_PATH, this::handleChat);
+        server.createContext(SPEECH_PATH, this::handleSpeech);
+    }
+
+    /**
+     * Starts a stub on an ephemeral loopback port.
+     *
+     * @param recording      Recording whose upstream responses should be served
+     * @param recordedDelays Whether to wait the recorded upstream latency before answering
+     * @return The running stub
+     * @throws IOException if the server cannot bind
+     */
+    public static UpstreamStub start(SessionRecording recording, boolean recordedDelays) throws IOException {
+        UpstreamStub stub = new UpstreamStub(recording, recordedDelays);
+        stub.server.start();
+        return stub;
+    }
+
+    public String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+
+    private void handleChat(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        RecordedEvent event;
+        synchronized (llmResponses) {
+            event = llmResponses.pollFirst();
+        }
+        if (event == null) {
+            respond(exchange, 404, "application/json", "{\"error\":\"recording has no more chat responses\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        pause(event);
+        Map<String, Object> body = Map.of("choices", List.of(Map.of(
+                "message", Map.of("role", "assistant", "content", event.getData().get("content")))));
+        respond(exchange, 200, "application/json", gson.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleSpeech(HttpExchange exchange) throws IOException {
+        Map<String, Object> request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = gson.fromJson(new String(body.readAllBytes(), StandardCharsets.UTF_8), Map.class);
+        }
+        String key = speechKey((String) request.get("input"), (String) request.get("response_format"));
+        RecordedEvent event;
+        synchronized (speechResponses) {
+            Deque<RecordedEvent> queue = speechResponses.get(key);
+            event = queue == null ? null : (queue.size() > 1 ? queue.pollFirst() : queue.peekFirst());
+        }
+        if (event == null) {
+            respond(exchange, 404, "application/json", "{\"error\":\"no recorded speech for this text\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        pause(event);
+        byte[] audio = recording.audio(event);
+        respond(exchange, 200, "application/octet-stream", audio);
+    }
+
+    private void pause(RecordedEvent event) {
+        if (!recordedDelays || event.getDurationMillis() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(event.getDurationMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String speechKey(String text, String format) {
+        return (format == null ? "mp3" : format) + "|" + text;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,8 @@
 package org.tukma.jobs.controllers;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -11,6 +13,9 @@ import org.tukma.jobs.dtos.JobCreateRequest;
 import org.tukma.jobs.dtos.JobEditRequest;
 import org.tukma.jobs.dtos.PagedJobsResponse;
 import org.tukma.jobs.models.Job;
+import org.tukma.jobs.services.JobAutocomplete;
+import org.tukma.jobs.services.JobDetailCache;
+import org.tukma.jobs.services.JobFilter;
 import org.tukma.jobs.services.JobService;
 
 import java.util.ArrayList;
@@ -18,6 +23,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.tukma.jobs.models.Keyword;
 import org.tukma.jobs.repositories.KeywordRepository;
 
@@ -28,10 +34,15 @@ public class JobController {
 
     private final JobService jobService;
     private final KeywordRepository keywordRepository;
+    private final JobDetailCache jobDetailCache;
+    private final JobAutocomplete jobAutocomplete;
 
-    public JobController(JobService jobService, KeywordRepository keywordRepository) {
+    public JobController(JobService jobService, KeywordRepository keywordRepository, JobDetailCache jobDetailCache,
+                         JobAutocomplete jobAutocomplete) {
         this.jobService = jobService;
         this.keywordRepository = keywordRepository;
+        this.jobDetailCache = jobDetailCache;
+        this.jobAutocomplete = jobAutocomplete;
     }
 
     @PostMapping("/create-job")
@@ -73,16 +84,24 @@ public class JobController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Get a job with its keywords. Served from pre-rendered JSON; the ETag header lets clients
+     * revalidate with If-None-Match and get 304 Not Modified.
+     */
     @GetMapping("/get-job-details/{accessKey}")
     public ResponseEntity<?> getJobDetail(@PathVariable String accessKey) {
-        var job = jobService.getByAccessKey(accessKey);
+        JobDetailCache.RenderedJob job = jobDetailCache.get(accessKey);
         if (job == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
                     Map.of("message", "Cannot find job with access key: " + accessKey + "."));
         }
-        
-        Map<String, Object> jobWithKeywords = jobService.getJobWithKeywords(job);
-        return ResponseEntity.ok(jobWithKeywords);
+
+        // Spring answers matching conditional GETs with 304 before the body is written
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(job.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(job.getBody());
     }
 
     @PostMapping("/upload-application/{accessKey}")
@@ -132,33 +151,71 @@ public class JobController {
      * Get all jobs with pagination for applicants, sorted by updatedAt (most recent first)
      * This endpoint is intended for job applicants to browse available jobs
      * 
-     * @param page The page number (0-based, defaults to 0)
+     * @param page The page number (0-based, defaults to 0); ignored when a cursor is given
      * @param size The number of items per page (defaults to 10)
+     * @param cursor Switches to keyset pagination: empty for the first page, otherwise the previous nextCursor
      * @return Paginated response containing jobs and pagination metadata
      */
     @GetMapping("/get-all-jobs")
-    public ResponseEntity<PagedJobsResponse> getAllJobsPaginated(
+    public ResponseEntity<?> getAllJobsPaginated(
             @RequestParam(defaultValue = "0") int page, 
-            @RequestParam(defaultValue = "10") int size) {
-        PagedJobsResponse pagedResponse = jobService.getPagedJobsForApplicants(page, size);
-        return ResponseEntity.ok(pagedResponse);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(jobService.getPagedJobsForApplicants(page, size));
+        }
+        try {
+            return ResponseEntity.ok(jobService.getJobsForApplicantsAfter(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     /**
-     * Search for jobs using semantic search functionality
+     * Search and filter jobs, with facet counts for job type, shift type, location type and keyword
      * 
-     * @param query The search query
+     * @param query The search query; without one, filtered jobs are listed most recent first
+     * @param type Job types to include (any of)
+     * @param shiftType Shift types to include (any of)
+     * @param locationType Location types to include (any of)
+     * @param keyword Keywords to include (any of)
      * @param page The page number (0-based, defaults to 0)
      * @param size The number of items per page (defaults to 10)
-     * @return Paginated response containing matching jobs and pagination metadata
+     * @return Paginated response containing matching jobs, pagination metadata and facet counts
      */
     @GetMapping("/search")
     public ResponseEntity<PagedJobsResponse> searchJobs(
-            @RequestParam String query,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) List<Job.JobType> type,
+            @RequestParam(required = false) List<Job.ShiftType> shiftType,
+            @RequestParam(required = false) List<Job.LocationType> locationType,
+            @RequestParam(required = false) List<String> keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        PagedJobsResponse pagedResponse = jobService.searchJobs(query, page, size);
+        JobFilter filter = new JobFilter(type, shiftType, locationType, keyword);
+        PagedJobsResponse pagedResponse = jobService.searchJobs(query, filter, page, size);
         return ResponseEntity.ok(pagedResponse);
     }
 
-}
\ No newline at end of file
+    /**
+     * Suggest job titles and keywords for search-as-you-type, ranked by how many jobs use them
+     * and how recently those jobs were updated. Served from memory.
+     *
+     * @param prefix What the user has typed so far
+     * @param limit Maximum number of suggestions (defaults to 8, at most 10)
+     * @return The suggestions, best first
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<Map<String, Object>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+        for (JobAutocomplete.Completion completion : jobAutocomplete.complete(prefix, limit)) {
+            suggestions.add(Map.of("text", completion.getText(), "jobCount", completion.getJobCount()));
+        }
+        // Keystrokes repeat the same prefixes, so let browsers and proxies reuse answers briefly
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic())
+                .body(Map.of("suggestions", suggestions));
+    }
+}
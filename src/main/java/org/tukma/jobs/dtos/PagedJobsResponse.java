@@ -1,5 +1,6 @@
 package org.tukma.jobs.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,13 @@ import java.util.Map;
 public class PagedJobsResponse {
     private List<Map<String, Object>> jobs;
     private PaginationMetadata pagination;
+    // Facet counts for filtered job board responses; omitted elsewhere
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Integer>> facets;
+
+    public PagedJobsResponse(List<Map<String, Object>> jobs, PaginationMetadata pagination) {
+        this(jobs, pagination, null);
+    }
 
     @Data
     @AllArgsConstructor
@@ -23,5 +31,11 @@ public class PagedJobsResponse {
         private long totalElements;
         private int totalPages;
         private boolean hasNextPage;
+        // Opaque cursor for the next page of keyset pagination; null when there is none
+        private String nextCursor;
+
+        public PaginationMetadata(int page, int size, long totalElements, int totalPages, boolean hasNextPage) {
+            this(page, size, totalElements, totalPages, hasNextPage, null);
+        }
     }
 }
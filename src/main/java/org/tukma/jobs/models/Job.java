@@ -13,7 +13,8 @@ import java.util.List;
 @Entity
 @Getter
 @Setter
-@Table(name="jobs")
+// Backs the applicant job board's keyset pagination on (updatedAt, id)
+@Table(name="jobs", indexes = @Index(name = "idx_jobs_updated_at_id", columnList = "updated_at DESC, id DESC"))
 @ToString
 public class Job {
 
@@ -7,6 +7,9 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
+// Keeps keyword writes idempotent: a job cannot hold the same keyword twice
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_keyword_owner_name",
+        columnNames = {"keyword_owner_id", "keyword_name"}))
 public class Keyword {
 
     @Id
@@ -2,37 +2,55 @@ package org.tukma.jobs.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.tukma.jobs.models.Job;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface JobRepository extends JpaRepository<Job, Long> {
 
+    // Owners are fetched in the same query instead of one select per distinct owner
+    @EntityGraph(attributePaths = "owner")
     public List<Job> findByOwner_Id(Long id);
-    
+
+    @EntityGraph(attributePaths = "owner")
     public Page<Job> findByOwner_Id(Long id, Pageable pageable);
 
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    public Page<Job> findAll(Pageable pageable);
+
+    // Keyset pagination over (updatedAt, id), newest first; the Pageable only carries the limit
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT j FROM Job j ORDER BY j.updatedAt DESC, j.id DESC")
+    public List<Job> findFirstByUpdatedAt(Pageable limit);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT j FROM Job j WHERE j.updatedAt < :updatedAt OR (j.updatedAt = :updatedAt AND j.id < :id) " +
+            "ORDER BY j.updatedAt DESC, j.id DESC")
+    public List<Job> findAfterByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                          Pageable limit);
+
     public Optional<Job> findByAccessKey(String accessKey);
 
+    // A single job with its owner, for applying a change made on another instance
+    @EntityGraph(attributePaths = "owner")
+    public Optional<Job> findWithOwnerById(Long id);
+
     public boolean existsByAccessKey(String accessKey);
+
+    // All jobs with their owners in one query, for building the search index
+    @Query("SELECT j FROM Job j LEFT JOIN FETCH j.owner")
+    public List<Job> findAllWithOwner();
     
     /**
      * Find jobs where title or description contains the search query (case insensitive)
      */
     Page<Job> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
             String title, String description, Pageable pageable);
-    
-    /**
-     * Advanced search query that searches across multiple fields with relevance scoring
-     */
-    @Query(value = "SELECT j.* FROM jobs j LEFT JOIN keyword k ON j.id = k.keyword_owner_id " +
-            "WHERE LOWER(j.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(j.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(k.keyword_name) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "GROUP BY j.id", nativeQuery = true)
-    List<Job> findBySearchQuery(@Param("query") String query);
 }
@@ -1,9 +1,12 @@
 package org.tukma.jobs.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.tukma.jobs.models.Job;
 import org.tukma.jobs.models.Keyword;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface KeywordRepository extends JpaRepository<Keyword, Long> {
@@ -12,4 +15,12 @@ public interface KeywordRepository extends JpaRepository<Keyword, Long> {
     
     public List<Keyword> findByKeywordOwner(Job job);
 
+    // Keywords for a whole page of jobs in one IN query
+    @Query("SELECT k.keywordOwner.id, k.keywordName FROM Keyword k WHERE k.keywordOwner.id IN :jobIds")
+    public List<Object[]> findOwnerIdsAndNamesByOwnerIds(@Param("jobIds") Collection<Long> jobIds);
+
+    // Job id and keyword name for every keyword, without loading the owning jobs
+    @Query("SELECT k.keywordOwner.id, k.keywordName FROM Keyword k")
+    public List<Object[]> findAllOwnerIdsAndNames();
+
 }
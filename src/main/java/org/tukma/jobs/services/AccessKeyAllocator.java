@@ -0,0 +1,177 @@
+package org.tukma.jobs.services;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.tukma.config.RedisGateway;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands out job access keys of the form `XXX-XXXX` without checking the database first.
+ *
+ * Keys encode a shared sequence number through a keyed Feistel permutation of the 62^7
+ * keyspace, so distinct sequence numbers always give distinct keys, and consecutive
+ * numbers give unrelated-looking keys. Sequence numbers are reserved from Redis in blocks.
+ * If Redis is unreachable, a random number is used instead; the unique constraint on
+ * the access key column catches the rare collision and the caller retries.
+ */
+@Service
+public class AccessKeyAllocator {
+
+    private static final Logger logger = Logger.getLogger(AccessKeyAllocator.class.getName());
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int KEY_LENGTH = 7;
+    static final long KEYSPACE = pow(CHARACTERS.length(), KEY_LENGTH);
+    // 62^7 lies between 2^41 and 2^42, so the permutation runs on 42 bits and cycle-walks back into range
+    static final int HALF_BITS = 21;
+    private static final int ROUNDS = 4;
+    private static final String SEQUENCE_KEY = "jobs:access-key:sequence";
+    private static final String DEFAULT_SECRET = "tukma-access-keys";
+
+    /**
+     * Reserves ARGV[1] sequence numbers and returns the last one. A missing counter starts at
+     * ARGV[2], a random offset, so a flushed Redis does not replay numbers already handed out.
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = RedisScript.of(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('SET', KEYS[1], ARGV[2]) end " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+    private final RedisGateway redis;
+    private final Permutation permutation;
+    private final int blockSize;
+    private final SecureRandom random = new SecureRandom();
+
+    private long next;
+    private long blockEnd;
+
+    public AccessKeyAllocator(RedisGateway redis, Environment environment) {
+        this.redis = redis;
+        this.blockSize = environment.getProperty("tukma.jobs.access-key-block", Integer.class, 100);
+        String secret = environment.getProperty("tukma.jobs.access-key-secret");
+        if (secret == null || secret.isBlank()) {
+            logger.warning("tukma.jobs.access-key-secret is not set; job access keys follow a public permutation");
+            secret = DEFAULT_SECRET;
+        }
+        // Every instance must use the same secret, otherwise their permutations can collide
+        this.permutation = new Permutation(Hashing.hmacSha256(secret.getBytes(StandardCharsets.UTF_8)),
+                HALF_BITS, KEYSPACE);
+    }
+
+    /**
+     * Returns a fresh access key.
+     */
+    public String nextKey() {
+        return format(permutation.apply(nextSequence()));
+    }
+
+    private synchronized long nextSequence() {
+        if (next >= blockEnd) {
+            try {
+                Long last = redis.script("jobs.access-key", RESERVE_SCRIPT, List.of(SEQUENCE_KEY),
+                        String.valueOf(blockSize), String.valueOf(Math.floorMod(random.nextLong(), KEYSPACE)));
+                blockEnd = last + 1;
+                next = blockEnd - blockSize;
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Access key sequence unavailable, using a random key", e);
+                return Math.floorMod(random.nextLong(), KEYSPACE);
+            }
+        }
+        return Math.floorMod(next++, KEYSPACE);
+    }
+
+    static String format(long value) {
+        char[] key = new char[KEY_LENGTH + 1];
+        for (int i = KEY_LENGTH; i >= 0; i--) {
+            if (i == 3) {
+                key[i] = '-';
+                continue;
+            }
+            key[i] = CHARACTERS.charAt((int) (value % CHARACTERS.length()));
+            value /= CHARACTERS.length();
+        }
+        return new String(key);
+    }
+
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    /**
+     * A keyed Feistel permutation of [0, domain). The balanced network is a bijection on
+     * 2 * halfBits bits; re-applying it until the value is below the domain (cycle walking)
+     * keeps it a bijection on the domain.
+     */
+    static final class Permutation {
+
+        private final HashFunction roundFunction;
+        private final int halfBits;
+        private final long halfMask;
+        private final long domain;
+
+        Permutation(HashFunction roundFunction, int halfBits, long domain) {
+            if (domain > 1L << (2 * halfBits)) {
+                throw new IllegalArgumentException("Domain does not fit in " + 2 * halfBits + " bits");
+            }
+            this.roundFunction = roundFunction;
+            this.halfBits = halfBits;
+            this.halfMask = (1L << halfBits) - 1;
+            this.domain = domain;
+        }
+
+        long apply(long value) {
+            do {
+                value = encrypt(value);
+            } while (value >= domain);
+            return value;
+        }
+
+        long invert(long value) {
+            do {
+                value = decrypt(value);
+            } while (value >= domain);
+            return value;
+        }
+
+        private long encrypt(long value) {
+            long left = value >>> halfBits;
+            long right = value & halfMask;
+            for (int round = 0; round < ROUNDS; round++) {
+                long mixed = left ^ round(round, right);
+                left = right;
+                right = mixed;
+            }
+            return (left << halfBits) | right;
+        }
+
+        private long decrypt(long value) {
+            long left = value >>> halfBits;
+            long right = value & halfMask;
+            for (int round = ROUNDS - 1; round >= 0; round--) {
+                long previous = right ^ round(round, left);
+                right = left;
+                left = previous;
+            }
+            return (left << halfBits) | right;
+        }
+
+        private long round(int round, long half) {
+            return roundFunction.newHasher()
+                    .putInt(round)
+                    .putLong(half)
+                    .hash()
+                    .asLong() & halfMask;
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package org.tukma.jobs.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.tukma.jobs.models.Job;
+import org.tukma.jobs.repositories.JobRepository;
+import org.tukma.jobs.repositories.KeywordRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Search-as-you-type suggestions drawn from job titles and keywords.
+ *
+ * Suggestions live in a radix trie keyed by their lowercased text, and also by every later
+ * word of a title, so "dev" suggests "Senior Developer". Each node caches its best
+ * {@link #MAX_LIMIT} suggestions, so a lookup walks the prefix and returns that list.
+ *
+ * A suggestion's weight is the sum over the live jobs using it of exp(age / 30 days), with
+ * age measured from a fixed epoch to the job's updatedAt. Used by more jobs, or by more
+ * recently updated jobs, ranks higher, and weights never need recomputing as time passes.
+ * Changes from the {@link JobChangeFeed}, made on this or any other instance, move one job's
+ * contribution at a time and refresh the cached lists along the affected paths.
+ *
+ * The number of suggestions is capped by `tukma.jobs.autocomplete.max-suggestions`. While the trie
+ * is full, new titles and keywords are skipped, with a warning the first time after each load;
+ * they appear once the next change or reload finds room for them.
+ */
+@Component
+public class JobAutocomplete {
+
+    private static final Logger logger = Logger.getLogger(JobAutocomplete.class.getName());
+
+    public static final int MAX_LIMIT = 10;
+    private static final int MAX_SUGGESTION_LENGTH = 64;
+    // A title is also reachable from its second, third, ... word, up to this many words in
+    private static final int MAX_TITLE_WORD_STARTS = 6;
+    private static final long EPOCH_SECONDS = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final double RECENCY_SCALE_SECONDS = 30 * 24 * 3600.0;
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    private final JobRepository jobRepository;
+    private final KeywordRepository keywordRepository;
+    private final int maxSuggestions;
+    private final JobChangeFeed.Subscription changes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node("");
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private long skipped;
+    private volatile boolean loaded;
+
+    public JobAutocomplete(JobRepository jobRepository, KeywordRepository keywordRepository, JobChangeFeed changeFeed,
+                           Environment environment) {
+        this.jobRepository = jobRepository;
+        this.keywordRepository = keywordRepository;
+        this.changes = changeFeed.subscribe(this::onJobChanged, this::reload);
+        this.maxSuggestions = environment.getProperty("tukma.jobs.autocomplete.max-suggestions", Integer.class, 50_000);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Completion {
+        private final String text;
+        private final int jobCount;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    /**
+     * Rebuilds every suggestion from the database with two queries. Changes arriving
+     * meanwhile are held back by the {@link JobChangeFeed} and applied once they are built.
+     */
+    public synchronized void reload() {
+        changes.beginLoad();
+        Map<Long, List<String>> keywordsByJob = new HashMap<>();
+        List<Job> jobs;
+        try {
+            for (Object[] row : keywordRepository.findAllOwnerIdsAndNames()) {
+                keywordsByJob.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+            jobs = jobRepository.findAllWithOwner();
+        } catch (RuntimeException e) {
+            changes.cancelLoad();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            root.clear();
+            suggestions.clear();
+            contributions.clear();
+            skipped = 0;
+            for (Job job : jobs) {
+                addJob(job, keywordsByJob.getOrDefault(job.getId(), List.of()));
+            }
+            changes.finishLoad();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Job autocomplete loaded with " + suggestions.size() + " suggestions"
+                + (skipped > 0 ? ", " + skipped + " skipped over the limit" : ""));
+    }
+
+    /**
+     * Applies one change. Delivered by the {@link JobChangeFeed}, which holds changes back while suggestions load.
+     */
+    public void onJobChanged(JobChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeJob(event.getJobId());
+            if (!event.isDeleted()) {
+                addJob(event.getJob(), event.getKeywords());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggests titles and keywords starting with the typed text, best first.
+     *
+     * @param prefix What the user has typed so far
+     * @param limit  Maximum number of suggestions, at most {@link #MAX_LIMIT}
+     * @return The suggestions, possibly empty
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        ensureLoaded();
+        String key = normalize(prefix, true);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root.find(key);
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(Math.min(limit, MAX_LIMIT), node.top.length);
+            List<Completion> completions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                completions.add(new Completion(node.top[i].text, node.top[i].jobs));
+            }
+            return completions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private void addJob(Job job, List<String> keywords) {
+        double weight = recencyWeight(job.getUpdatedAt());
+        Set<Suggestion> used = new LinkedHashSet<>();
+        Suggestion title = acquire(job.getTitle(), true);
+        if (title != null) {
+            used.add(title);
+        }
+        for (String keyword : keywords) {
+            Suggestion suggestion = acquire(keyword, false);
+            if (suggestion != null) {
+                used.add(suggestion);
+            }
+        }
+        for (Suggestion suggestion : used) {
+            suggestion.weight += weight;
+            suggestion.jobs++;
+            refresh(suggestion);
+        }
+        contributions.put(job.getId(), new Contribution(used.toArray(new Suggestion[0]), weight));
+    }
+
+    private void removeJob(Long jobId) {
+        Contribution contribution = contributions.remove(jobId);
+        if (contribution == null) {
+            return;
+        }
+        for (Suggestion suggestion : contribution.suggestions) {
+            suggestion.weight -= contribution.weight;
+            if (--suggestion.jobs == 0) {
+                suggestions.remove(suggestion.key);
+                for (String path : suggestion.paths) {
+                    root.remove(path, suggestion);
+                }
+            } else {
+                refresh(suggestion);
+            }
+        }
+    }
+
+    // Finds or creates the suggestion for a title or keyword; null if it is empty or the trie is full
+    private Suggestion acquire(String text, boolean title) {
+        String key = normalize(text, false);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Suggestion suggestion = suggestions.get(key);
+        if (suggestion != null) {
+            return suggestion;
+        }
+        if (suggestions.size() >= maxSuggestions) {
+            if (skipped++ == 0 && loaded) {
+                logger.warning("Job autocomplete is full at " + maxSuggestions + " suggestions; new titles and"
+                        + " keywords are skipped. Raise tukma.jobs.autocomplete.max-suggestions to keep them");
+            }
+            return null;
+        }
+        String display = text.trim().replaceAll("\\s+", " ");
+        suggestion = new Suggestion(key, display.length() > MAX_SUGGESTION_LENGTH
+                ? display.substring(0, MAX_SUGGESTION_LENGTH) : display, paths(key, title));
+        suggestions.put(key, suggestion);
+        for (String path : suggestion.paths) {
+            root.insert(path, suggestion);
+        }
+        return suggestion;
+    }
+
+    private void refresh(Suggestion suggestion) {
+        for (String path : suggestion.paths) {
+            root.refresh(path);
+        }
+    }
+
+    private static String[] paths(String key, boolean title) {
+        List<String> paths = new ArrayList<>();
+        paths.add(key);
+        if (title) {
+            int start = key.indexOf(' ');
+            while (start >= 0 && paths.size() < MAX_TITLE_WORD_STARTS) {
+                paths.add(key.substring(start + 1));
+                start = key.indexOf(' ', start + 1);
+            }
+        }
+        return paths.toArray(new String[0]);
+    }
+
+    private static double recencyWeight(LocalDateTime updatedAt) {
+        long seconds = updatedAt == null
+                ? System.currentTimeMillis() / 1000
+                : updatedAt.toEpochSecond(ZoneOffset.UTC);
+        return Math.exp((seconds - EPOCH_SECONDS) / RECENCY_SCALE_SECONDS);
+    }
+
+    /**
+     * Lowercases and collapses whitespace. A typed prefix keeps one trailing space, so
+     * "java " only matches suggestions with another word after "java".
+     */
+    private static String normalize(String text, boolean prefix) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(Math.min(text.length(), MAX_SUGGESTION_LENGTH));
+        boolean space = false;
+        for (int i = 0; i < text.length() && normalized.length() < MAX_SUGGESTION_LENGTH; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        if (prefix && space && normalized.length() < MAX_SUGGESTION_LENGTH) {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private static final class Suggestion {
+        private final String key;
+        private final String text;
+        private final String[] paths;
+        private double weight;
+        private int jobs;
+
+        private Suggestion(String key, String text, String[] paths) {
+            this.key = key;
+            this.text = text;
+            this.paths = paths;
+        }
+    }
+
+    private static final class Contribution {
+        private final Suggestion[] suggestions;
+        private final double weight;
+
+        private Contribution(Suggestion[] suggestions, double weight) {
+            this.suggestions = suggestions;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Radix trie node. `edge` is the label on the edge from the parent; children are kept in
+     * small arrays keyed by the first character of their edge.
+     */
+    private static final class Node {
+        private String edge;
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+        private Suggestion[] here = NONE;
+        private Suggestion[] top = NONE;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private void clear() {
+            firsts = new char[0];
+            children = new Node[0];
+            here = NONE;
+            top = NONE;
+        }
+
+        private int indexOf(char first) {
+            for (int i = 0; i < firsts.length; i++) {
+                if (firsts[i] == first) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // The node whose subtree holds exactly the keys starting with the prefix
+        private Node find(String prefix) {
+            Node node = this;
+            int position = 0;
+            while (position < prefix.length()) {
+                int index = node.indexOf(prefix.charAt(position));
+                if (index < 0) {
+                    return null;
+                }
+                Node child = node.children[index];
+                int remaining = prefix.length() - position;
+                if (remaining <= child.edge.length()) {
+                    return child.edge.startsWith(prefix.substring(position)) ? child : null;
+                }
+                if (!prefix.startsWith(child.edge, position)) {
+                    return null;
+                }
+                position += child.edge.length();
+                node = child;
+            }
+            return node;
+        }
+
+        private void insert(String key, Suggestion suggestion) {
+            List<Node> path = new ArrayList<>();
+            Node node = this;
+            int position = 0;
+            path.add(node);
+            while (position < key.length()) {
+                int index = node.indexOf(key.charAt(position));
+                if (index < 0) {
+                    Node leaf = new Node(key.substring(position));
+                    node.addChild(leaf);
+                    node = leaf;
+                    path.add(node);
+                    break;
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.edge, key, position);
+                if (common < child.edge.length()) {
+                    // Split the edge so the key ends on, or branches from, a node
+                    Node middle = new Node(child.edge.substring(0, common));
+                    child.edge = child.edge.substring(common);
+                    middle.addChild(child);
+                    middle.top = child.top;
+                    node.children[index] = middle;
+                    child = middle;
+                }
+                position += common;
+                node = child;
+                path.add(node);
+            }
+            node.here = append(node.here, suggestion);
+            recompute(path);
+        }
+
+        private void remove(String key, Suggestion suggestion) {
+            List<Node> path = walk(key);
+            if (path == null) {
+                return;
+            }
+            Node node = path.get(path.size() - 1);
+            node.here = without(node.here, suggestion);
+            // Drop nodes left with no suggestions and no children
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node current = path.get(i);
+                if (current.here.length > 0 || current.children.length > 0) {
+                    break;
+                }
+                path.get(i - 1).removeChild(current);
+                path.remove(i);
+            }
+            // Undo the split that made the deepest remaining node, if it no longer branches
+            Node last = path.get(path.size() - 1);
+            if (path.size() > 1 && last.here.length == 0 && last.children.length == 1) {
+                last.mergeWithOnlyChild();
+            }
+            recompute(path);
+        }
+
+        private void refresh(String key) {
+            List<Node> path = walk(key);
+            if (path != null) {
+                recompute(path);
+            }
+        }
+
+        // The nodes from this one down to the node where the key ends, or null if it is not stored
+        private List<Node> walk(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = this;
+            int position = 0;
+            path.add(node);
+            while (position < key.length()) {
+                int index = node.indexOf(key.charAt(position));
+                if (index < 0 || !key.startsWith(node.children[index].edge, position)) {
+                    return null;
+                }
+                node = node.children[index];
+                position += node.edge.length();
+                path.add(node);
+            }
+            return path;
+        }
+
+        private static void recompute(List<Node> path) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                path.get(i).recomputeTop();
+            }
+        }
+
+        private void recomputeTop() {
+            List<Suggestion> candidates = new ArrayList<>(here.length + children.length * MAX_LIMIT);
+            candidates.addAll(Arrays.asList(here));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            // The same title can reach a node through several word starts
+            List<Suggestion> best = new ArrayList<>(new LinkedHashSet<>(candidates));
+            best.sort((a, b) -> a.weight != b.weight ? Double.compare(b.weight, a.weight) : a.key.compareTo(b.key));
+            top = best.subList(0, Math.min(MAX_LIMIT, best.size())).toArray(NONE);
+        }
+
+        private void mergeWithOnlyChild() {
+            Node child = children[0];
+            edge = edge + child.edge;
+            firsts = child.firsts;
+            children = child.children;
+            here = child.here;
+            top = child.top;
+        }
+
+        private void addChild(Node child) {
+            firsts = Arrays.copyOf(firsts, firsts.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            firsts[firsts.length - 1] = child.edge.charAt(0);
+            children[children.length - 1] = child;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.edge.charAt(0));
+            if (index < 0) {
+                return;
+            }
+            int last = children.length - 1;
+            firsts[index] = firsts[last];
+            children[index] = children[last];
+            firsts = Arrays.copyOf(firsts, last);
+            children = Arrays.copyOf(children, last);
+        }
+
+        private static int commonPrefix(String edge, String key, int offset) {
+            int length = Math.min(edge.length(), key.length() - offset);
+            int i = 0;
+            while (i < length && edge.charAt(i) == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private static Suggestion[] append(Suggestion[] suggestions, Suggestion suggestion) {
+            for (Suggestion existing : suggestions) {
+                if (existing == suggestion) {
+                    return suggestions;
+                }
+            }
+            Suggestion[] grown = Arrays.copyOf(suggestions, suggestions.length + 1);
+            grown[suggestions.length] = suggestion;
+            return grown;
+        }
+
+        private static Suggestion[] without(Suggestion[] suggestions, Suggestion suggestion) {
+            List<Suggestion> kept = new ArrayList<>(Arrays.asList(suggestions));
+            kept.remove(suggestion);
+            return kept.isEmpty() ? NONE : kept.toArray(NONE);
+        }
+    }
+}
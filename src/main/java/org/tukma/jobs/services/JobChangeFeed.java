@@ -0,0 +1,175 @@
+package org.tukma.jobs.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tukma.config.CacheInvalidationBus;
+import org.tukma.jobs.models.Keyword;
+import org.tukma.jobs.repositories.JobRepository;
+import org.tukma.jobs.repositories.KeywordRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers job changes to the in-memory job indexes ({@link JobSearchIndex}, {@link JobAutocomplete})
+ * on every instance.
+ *
+ * Local {@link JobChangedEvent}s are applied as they are, and their job id is published on the
+ * {@link CacheInvalidationBus}. Other instances reload that one job from the database when the
+ * message arrives, or treat it as deleted if it is gone. When the bus recovers from an outage,
+ * loaded indexes are rebuilt, since they may have missed changes in the meantime.
+ *
+ * Each index holds a {@link Subscription} that buffers changes while the index loads. The load
+ * reads the database first and builds afterwards, so a change committed in between would
+ * otherwise be lost; the buffered changes are replayed once the build is done.
+ */
+@Component
+public class JobChangeFeed {
+
+    private static final Logger logger = Logger.getLogger(JobChangeFeed.class.getName());
+
+    private static final String CHANNEL = "jobs";
+
+    private final JobRepository jobRepository;
+    private final KeywordRepository keywordRepository;
+    private final CacheInvalidationBus invalidationBus;
+    // Messages carry the publishing instance, so an instance skips the changes it already applied
+    private final String origin = UUID.randomUUID().toString();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public JobChangeFeed(JobRepository jobRepository, KeywordRepository keywordRepository,
+                         CacheInvalidationBus invalidationBus) {
+        this.jobRepository = jobRepository;
+        this.keywordRepository = keywordRepository;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(CHANNEL, this::onRemoteChange, false);
+        invalidationBus.onRecovery(this::onBusRecovered);
+    }
+
+    /**
+     * Subscribes an index to job changes. The subscription starts out buffering, as the index
+     * has not been loaded yet.
+     *
+     * @param apply  Applies one change to the index, taking the index's own lock
+     * @param reload Rebuilds the index from the database
+     * @return The subscription, whose load brackets the index calls around every rebuild
+     */
+    public Subscription subscribe(Consumer<JobChangedEvent> apply, Runnable reload) {
+        Subscription subscription = new Subscription(apply, reload);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        deliver(event);
+        invalidationBus.publish(CHANNEL, origin + ":" + event.getJobId());
+    }
+
+    private void onRemoteChange(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0 || message.startsWith(origin + ":")) {
+            return;
+        }
+        Long jobId;
+        try {
+            jobId = Long.valueOf(message.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        try {
+            JobChangedEvent event = jobRepository.findWithOwnerById(jobId)
+                    .map(job -> new JobChangedEvent(jobId, job, keywordRepository.findByKeywordOwner_Id(jobId)
+                            .stream()
+                            .map(Keyword::getKeywordName)
+                            .toList()))
+                    .orElseGet(() -> JobChangedEvent.deleted(jobId));
+            deliver(event);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not apply change to job " + jobId + " from another instance", e);
+        }
+    }
+
+    // The first recovery is the bus coming up at startup, before any index has loaded
+    private void onBusRecovered() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.loadedOnce) {
+                subscription.reload.run();
+            }
+        }
+    }
+
+    private void deliver(JobChangedEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * One index's view of the feed. Changes are applied directly while the index is loaded and
+     * queued while it is loading.
+     */
+    public static final class Subscription {
+
+        private final Consumer<JobChangedEvent> apply;
+        private final Runnable reload;
+        // Non-null while the index is loading
+        private List<JobChangedEvent> pending = new ArrayList<>();
+        private volatile boolean loadedOnce;
+
+        private Subscription(Consumer<JobChangedEvent> apply, Runnable reload) {
+            this.apply = apply;
+            this.reload = reload;
+        }
+
+        /**
+         * Starts buffering changes. Call before the index reads the database.
+         */
+        public synchronized void beginLoad() {
+            if (pending == null) {
+                pending = new ArrayList<>();
+            }
+        }
+
+        /**
+         * Replays the changes buffered since {@link #beginLoad()} and stops buffering.
+         * Call after the index is built, while still holding its write lock.
+         */
+        public synchronized void finishLoad() {
+            if (pending != null) {
+                for (JobChangedEvent event : pending) {
+                    apply.accept(event);
+                }
+            }
+            pending = null;
+            loadedOnce = true;
+        }
+
+        /**
+         * Stops buffering after the index failed to read the database. An index that was loaded
+         * before keeps serving its old contents, so the buffered changes are applied to it; an
+         * index that never loaded keeps them for its next attempt.
+         */
+        public synchronized void cancelLoad() {
+            if (loadedOnce) {
+                finishLoad();
+            }
+        }
+
+        // Replaying a change already in the loaded state is harmless: every event carries the full job
+        private void offer(JobChangedEvent event) {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.add(event);
+                    return;
+                }
+            }
+            apply.accept(event);
+        }
+    }
+}
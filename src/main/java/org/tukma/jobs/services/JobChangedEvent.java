@@ -0,0 +1,29 @@
+package org.tukma.jobs.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.tukma.jobs.models.Job;
+
+import java.util.List;
+
+/**
+ * Published by {@link JobService} whenever a job or its keywords change.
+ * Carries the job as saved and its full keyword list, so listeners do not have to query
+ * the database again. A null job means the job was deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class JobChangedEvent {
+
+    private final Long jobId;
+    private final Job job;
+    private final List<String> keywords;
+
+    public static JobChangedEvent deleted(Long jobId) {
+        return new JobChangedEvent(jobId, null, List.of());
+    }
+
+    public boolean isDeleted() {
+        return job == null;
+    }
+}
@@ -0,0 +1,132 @@
+package org.tukma.jobs.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tukma.config.CacheInvalidationBus;
+import org.tukma.jobs.models.Job;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of rendered job details for `/api/v1/jobs/get-job-details/{accessKey}`.
+ *
+ * Entries hold the response body as UTF-8 JSON bytes together with its ETag, so a hit needs
+ * neither the database nor the serializer, and a conditional GET can be answered with 304.
+ * There is no Last-Modified: keyword edits do not touch the job row, so its updatedAt would
+ * let a client keep stale keywords, while the ETag covers the whole body. Job changes drop the entry on every instance through the
+ * {@link CacheInvalidationBus}, keyed by job id; the TTL bounds staleness for changes made
+ * elsewhere, such as the owner's profile.
+ */
+@Component
+public class JobDetailCache {
+
+    private static final String CACHE_NAME = "job-details";
+
+    private final JobService jobService;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<String, RenderedJob> rendered;
+    // Job deletions only carry the id, so the cached access key is looked up here
+    private final Map<Long, String> accessKeyByJobId = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a render racing a change does not cache the old version
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Getter
+    @AllArgsConstructor
+    public static class RenderedJob {
+        private final Long jobId;
+        private final byte[] body;
+        private final String etag;
+    }
+
+    public JobDetailCache(JobService jobService, ObjectMapper objectMapper, CacheInvalidationBus invalidationBus,
+                          MeterRegistry meterRegistry, Environment environment) {
+        this.jobService = jobService;
+        this.objectMapper = objectMapper;
+        this.invalidationBus = invalidationBus;
+        this.rendered = CacheBuilder.newBuilder()
+                .maximumSize(environment.getProperty("tukma.jobs.detail-cache-size", Long.class, 10_000L))
+                .expireAfterWrite(environment.getProperty("tukma.jobs.detail-cache-ttl-seconds", Long.class, 300L),
+                        TimeUnit.SECONDS)
+                .removalListener((RemovalListener<String, RenderedJob>) removal ->
+                        accessKeyByJobId.remove(removal.getValue().getJobId(), removal.getKey()))
+                .recordStats()
+                .build();
+        invalidationBus.register(CACHE_NAME, this::invalidateLocally, false);
+        GuavaCacheMetrics.monitor(meterRegistry, rendered, CACHE_NAME);
+    }
+
+    /**
+     * Returns the rendered details of a job, loading and rendering them on a miss.
+     *
+     * @param accessKey The job's access key
+     * @return The rendered job, or null if no job has this access key
+     */
+    public RenderedJob get(String accessKey) {
+        RenderedJob cached = rendered.getIfPresent(accessKey);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = invalidations.get();
+        Job job = jobService.getByAccessKey(accessKey);
+        if (job == null) {
+            return null;
+        }
+        RenderedJob fresh = render(job);
+        synchronized (rendered) {
+            if (invalidations.get() == generation) {
+                rendered.put(accessKey, fresh);
+                accessKeyByJobId.put(job.getId(), accessKey);
+            }
+        }
+        return fresh;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        String jobId = String.valueOf(event.getJobId());
+        invalidateLocally(jobId);
+        invalidationBus.publish(CACHE_NAME, jobId);
+    }
+
+    private RenderedJob render(Job job) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(jobService.getJobWithKeywords(job));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render job " + job.getId(), e);
+        }
+        String etag = "\"" + Hashing.murmur3_128().hashBytes(body) + "\"";
+        return new RenderedJob(job.getId(), body, etag);
+    }
+
+    private void invalidateLocally(String jobId) {
+        Long id;
+        try {
+            id = Long.valueOf(jobId);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        synchronized (rendered) {
+            invalidations.incrementAndGet();
+            String accessKey = accessKeyByJobId.remove(id);
+            if (accessKey != null) {
+                rendered.invalidate(accessKey);
+            }
+        }
+    }
+}
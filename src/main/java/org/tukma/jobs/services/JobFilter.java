@@ -0,0 +1,51 @@
+package org.tukma.jobs.services;
+
+import lombok.Getter;
+import org.tukma.jobs.models.Job;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Facet selections for the job board. Values within one facet are alternatives (OR),
+ * and the facets are combined with AND. An empty facet does not filter.
+ */
+@Getter
+public class JobFilter {
+
+    public static final JobFilter NONE = new JobFilter(null, null, null, null);
+
+    private final Set<String> types;
+    private final Set<String> shiftTypes;
+    private final Set<String> locationTypes;
+    private final Set<String> keywords;
+
+    public JobFilter(Collection<Job.JobType> types, Collection<Job.ShiftType> shiftTypes,
+                     Collection<Job.LocationType> locationTypes, Collection<String> keywords) {
+        this.types = normalize(types, Enum::name);
+        this.shiftTypes = normalize(shiftTypes, Enum::name);
+        this.locationTypes = normalize(locationTypes, Enum::name);
+        this.keywords = normalize(keywords, keyword -> keyword.trim().toLowerCase());
+    }
+
+    public boolean isEmpty() {
+        return types.isEmpty() && shiftTypes.isEmpty() && locationTypes.isEmpty() && keywords.isEmpty();
+    }
+
+    private static <T> Set<String> normalize(Collection<T> values, Function<T, String> key) {
+        Set<String> normalized = new HashSet<>();
+        if (values != null) {
+            for (T value : values) {
+                if (value != null) {
+                    String name = key.apply(value);
+                    if (!name.isEmpty()) {
+                        normalized.add(name);
+                    }
+                }
+            }
+        }
+        return Set.copyOf(normalized);
+    }
+}
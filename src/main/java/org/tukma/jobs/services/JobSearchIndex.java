@@ -0,0 +1,649 @@
+package org.tukma.jobs.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.tukma.jobs.models.Job;
+import org.tukma.jobs.repositories.JobRepository;
+import org.tukma.jobs.repositories.KeywordRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * In-memory inverted index over job titles, descriptions and keywords, ranked with BM25.
+ *
+ * Every job gets a dense document id. Postings hold a field-weighted term frequency per
+ * document, so a title hit counts more than a description hit. Edits add a new document
+ * and tombstone the old one; the index compacts itself once tombstones outnumber live jobs.
+ * Each document keeps the job and its keywords, so search results need no database access.
+ *
+ * Every document also has a hashed character-trigram vector, L2-normalized and stored in one
+ * contiguous float array. Query ranking blends BM25 with the cosine similarity of these
+ * vectors, computed by brute force over the live documents.
+ *
+ * Alongside the postings, a compressed bitmap of document ids is kept for every job type,
+ * shift type, location type and keyword. Filters are evaluated as bitmap ORs within a facet
+ * and ANDs across facets, and facet counts are bitmap intersection cardinalities.
+ *
+ * The index is loaded from the database at startup and kept current through the
+ * {@link JobChangeFeed}, which carries changes made on this and every other instance.
+ */
+@Component
+public class JobSearchIndex {
+
+    private static final Logger logger = Logger.getLogger(JobSearchIndex.class.getName());
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float KEYWORD_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // Query terms with no exact match are expanded to indexed terms starting with them, at a discount
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+    private static final float PREFIX_MATCH_WEIGHT = 0.8f;
+    private static final int MIN_TOMBSTONES_BEFORE_COMPACTION = 256;
+
+    // Trigram vectors: hashed into a fixed number of signed buckets, so memory is DIMENSIONS floats per job
+    private static final int VECTOR_DIMENSIONS = 256;
+    private static final float SEMANTIC_WEIGHT = 0.3f;
+    private static final float MIN_SEMANTIC_SIMILARITY = 0.3f;
+    private static final float VECTOR_DESCRIPTION_WEIGHT = 0.5f;
+
+    public static final String TYPE_FACET = "type";
+    public static final String SHIFT_TYPE_FACET = "shiftType";
+    public static final String LOCATION_TYPE_FACET = "locationType";
+    public static final String KEYWORD_FACET = "keyword";
+    private static final List<String> FACETS = List.of(TYPE_FACET, SHIFT_TYPE_FACET, LOCATION_TYPE_FACET, KEYWORD_FACET);
+    // There are far more keywords than enum values, so only the most frequent are counted in responses
+    private static final int MAX_KEYWORD_FACET_VALUES = 20;
+
+    private final JobRepository jobRepository;
+    private final KeywordRepository keywordRepository;
+    private final JobChangeFeed.Subscription changes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> docByJobId = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<String, Map<String, RoaringBitmap>> facets = new HashMap<>();
+    private final RoaringBitmap liveBitmap = new RoaringBitmap();
+    private float[] vectors = new float[VECTOR_DIMENSIONS * 64];
+    private int liveDocs;
+    private int tombstones;
+    private double totalLength;
+    private volatile boolean loaded;
+
+    public JobSearchIndex(JobRepository jobRepository, KeywordRepository keywordRepository, JobChangeFeed changeFeed) {
+        this.jobRepository = jobRepository;
+        this.keywordRepository = keywordRepository;
+        this.changes = changeFeed.subscribe(this::onJobChanged, this::reload);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchHit {
+        private final Job job;
+        private final List<String> keywords;
+        private final double score;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchResult {
+        private final List<SearchHit> hits;
+        private final int totalMatches;
+        // Facet name to value to number of matching jobs, counted with that facet's own selection left out
+        private final Map<String, Map<String, Integer>> facets;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    /**
+     * Rebuilds the whole index from the database with two queries. Changes arriving
+     * meanwhile are held back by the {@link JobChangeFeed} and applied once it is built.
+     */
+    public synchronized void reload() {
+        changes.beginLoad();
+        Map<Long, List<String>> keywordsByJob = new HashMap<>();
+        List<Job> jobs;
+        try {
+            for (Object[] row : keywordRepository.findAllOwnerIdsAndNames()) {
+                keywordsByJob.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+            jobs = jobRepository.findAllWithOwner();
+        } catch (RuntimeException e) {
+            changes.cancelLoad();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Job job : jobs) {
+                addDocument(job, keywordsByJob.getOrDefault(job.getId(), List.of()));
+            }
+            changes.finishLoad();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Job search index loaded with " + jobs.size() + " jobs");
+    }
+
+    /**
+     * Applies one change. Delivered by the {@link JobChangeFeed}, which holds changes back while the index loads.
+     */
+    public void onJobChanged(JobChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getJobId());
+            if (!event.isDeleted()) {
+                addDocument(event.getJob(), event.getKeywords());
+            }
+            if (tombstones >= MIN_TOMBSTONES_BEFORE_COMPACTION && tombstones > liveDocs) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks jobs against a free-text query.
+     *
+     * @param query The search query
+     * @param page  The page number (0-based)
+     * @param size  The page size
+     * @return The requested page of hits, best first, and the total number of matching jobs
+     */
+    public SearchResult search(String query, int page, int size) {
+        return search(query, JobFilter.NONE, page, size);
+    }
+
+    /**
+     * Ranks jobs against a free-text query and restricts them to the selected facets.
+     * Without query terms, every job passing the filter matches, most recently updated first.
+     *
+     * @param query  The search query, may be empty
+     * @param filter The facet selections
+     * @param page   The page number (0-based)
+     * @param size   The page size
+     * @return The requested page of hits, the total number of matching jobs and the facet counts
+     */
+    public SearchResult search(String query, JobFilter filter, int page, int size) {
+        ensureLoaded();
+        List<String> terms = distinctTerms(query);
+        if (size <= 0 || page < 0 || (terms.isEmpty() && query != null && !query.isBlank())) {
+            return new SearchResult(List.of(), 0, Map.of());
+        }
+        Map<String, Set<String>> selections = selections(filter);
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return new SearchResult(List.of(), 0, Map.of());
+            }
+            if (terms.isEmpty()) {
+                return browse(selections, page, size);
+            }
+            float[] scores = new float[docs.size()];
+            // Each document enters the match list at most once, the first time it scores
+            int[] matched = new int[docs.size()];
+            int matchCount = 0;
+            float averageLength = (float) (totalLength / liveDocs);
+
+            for (String term : terms) {
+                Postings exact = dictionary.get(term);
+                if (exact != null) {
+                    matchCount = accumulate(exact, 1f, averageLength, scores, matched, matchCount);
+                    continue;
+                }
+                int expansions = 0;
+                SortedMap<String, Postings> prefixed = dictionary.subMap(term, term + Character.MAX_VALUE);
+                for (Postings postings : prefixed.values()) {
+                    if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    matchCount = accumulate(postings, PREFIX_MATCH_WEIGHT, averageLength, scores, matched, matchCount);
+                }
+            }
+
+            float bestLexical = 0f;
+            for (int i = 0; i < matchCount; i++) {
+                bestLexical = Math.max(bestLexical, scores[matched[i]]);
+            }
+
+            // Blend BM25, scaled to [0, 1], with the cosine similarity of the trigram vectors.
+            // Documents without a term match still qualify when they are similar enough,
+            // which catches misspellings and word variants BM25 cannot see.
+            float[] queryVector = new float[VECTOR_DIMENSIONS];
+            for (String term : terms) {
+                addTrigrams(queryVector, 0, term, 1f);
+            }
+            normalize(queryVector, 0);
+            float[] relevance = new float[docs.size()];
+            RoaringBitmap candidates = new RoaringBitmap();
+            IntIterator live = liveBitmap.getIntIterator();
+            while (live.hasNext()) {
+                int doc = live.next();
+                float lexical = scores[doc] > 0f ? scores[doc] / bestLexical : 0f;
+                float similarity = dot(vectors, doc * VECTOR_DIMENSIONS, queryVector);
+                if (lexical > 0f || similarity >= MIN_SEMANTIC_SIMILARITY) {
+                    relevance[doc] = (1 - SEMANTIC_WEIGHT) * lexical + SEMANTIC_WEIGHT * Math.max(similarity, 0f);
+                    candidates.add(doc);
+                }
+            }
+
+            RoaringBitmap eligible = RoaringBitmap.and(candidates, allowed(selections, null));
+            int[] ranked = top(eligible, (a, b) -> {
+                int byScore = Float.compare(relevance[a], relevance[b]);
+                return byScore != 0 ? byScore : Integer.compare(a, b);
+            }, page, size);
+
+            float best = ranked.length > 0 ? relevance[ranked[0]] : 1f;
+            List<SearchHit> hits = new ArrayList<>(size);
+            for (int i = page * size; i < ranked.length; i++) {
+                Doc doc = docs.get(ranked[i]);
+                // Scores are reported relative to the best match so they stay in (0, 1]
+                hits.add(new SearchHit(doc.job, doc.keywords, relevance[ranked[i]] / best));
+            }
+            return new SearchResult(hits, eligible.getCardinality(), countFacets(candidates, selections));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchResult browse(Map<String, Set<String>> selections, int page, int size) {
+        RoaringBitmap eligible = allowed(selections, null);
+        Comparator<Doc> byRecency = Comparator.comparing((Doc doc) -> doc.job.getUpdatedAt(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(doc -> doc.job.getId());
+        int[] ranked = top(eligible, (a, b) -> byRecency.compare(docs.get(a), docs.get(b)), page, size);
+
+        List<SearchHit> hits = new ArrayList<>(size);
+        for (int i = page * size; i < ranked.length; i++) {
+            Doc doc = docs.get(ranked[i]);
+            hits.add(new SearchHit(doc.job, doc.keywords, 0));
+        }
+        return new SearchResult(hits, eligible.getCardinality(), countFacets(liveBitmap, selections));
+    }
+
+    /**
+     * Returns the first (page + 1) * size candidates, best first. Only those can be on the page,
+     * so just they are kept, in a min-heap ordered by `worstFirst`.
+     */
+    private static int[] top(RoaringBitmap candidates, Comparator<Integer> worstFirst, int page, int size) {
+        int limit = (int) Math.min((long) (page + 1) * size, candidates.getCardinality());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, limit), worstFirst);
+        IntIterator iterator = candidates.getIntIterator();
+        while (limit > 0 && iterator.hasNext()) {
+            int doc = iterator.next();
+            if (heap.size() < limit) {
+                heap.add(doc);
+            } else if (worstFirst.compare(doc, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(doc);
+            }
+        }
+        int[] ranked = new int[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll();
+        }
+        return ranked;
+    }
+
+    private static Map<String, Set<String>> selections(JobFilter filter) {
+        Map<String, Set<String>> selections = new HashMap<>();
+        selections.put(TYPE_FACET, filter.getTypes());
+        selections.put(SHIFT_TYPE_FACET, filter.getShiftTypes());
+        selections.put(LOCATION_TYPE_FACET, filter.getLocationTypes());
+        selections.put(KEYWORD_FACET, filter.getKeywords());
+        return selections;
+    }
+
+    /**
+     * Live documents passing every selected facet except `excludedFacet`. The result may be
+     * the live bitmap itself, so callers must not modify it.
+     */
+    private RoaringBitmap allowed(Map<String, Set<String>> selections, String excludedFacet) {
+        RoaringBitmap allowed = liveBitmap;
+        for (Map.Entry<String, Set<String>> selection : selections.entrySet()) {
+            if (selection.getValue().isEmpty() || selection.getKey().equals(excludedFacet)) {
+                continue;
+            }
+            Map<String, RoaringBitmap> values = facets.getOrDefault(selection.getKey(), Map.of());
+            List<RoaringBitmap> alternatives = new ArrayList<>();
+            for (String value : selection.getValue()) {
+                RoaringBitmap bitmap = values.get(value);
+                if (bitmap != null) {
+                    alternatives.add(bitmap);
+                }
+            }
+            RoaringBitmap union = alternatives.isEmpty() ? new RoaringBitmap() : FastAggregation.or(alternatives.iterator());
+            allowed = RoaringBitmap.and(allowed, union);
+        }
+        return allowed;
+    }
+
+    /**
+     * Counts, for every facet value, the candidates that pass the other facets' selections.
+     * Leaving a facet's own selection out keeps its other values selectable, so picking
+     * FULL_TIME still shows how many PART_TIME jobs there are.
+     */
+    private Map<String, Map<String, Integer>> countFacets(RoaringBitmap candidates, Map<String, Set<String>> selections) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            RoaringBitmap base = RoaringBitmap.and(candidates, allowed(selections, facet));
+            List<Map.Entry<String, Integer>> values = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> value : facets.getOrDefault(facet, Map.of()).entrySet()) {
+                int count = RoaringBitmap.andCardinality(value.getValue(), base);
+                if (count > 0 || selections.get(facet).contains(value.getKey())) {
+                    values.add(Map.entry(value.getKey(), count));
+                }
+            }
+            values.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> value : values) {
+                // Selected keywords are always reported, even when outside the most frequent ones
+                if (!facet.equals(KEYWORD_FACET) || facetCounts.size() < MAX_KEYWORD_FACET_VALUES
+                        || selections.get(facet).contains(value.getKey())) {
+                    facetCounts.put(value.getKey(), value.getValue());
+                }
+            }
+            counts.put(facet, facetCounts);
+        }
+        return counts;
+    }
+
+    private int accumulate(Postings postings, float weight, float averageLength,
+                           float[] scores, int[] matched, int matchCount) {
+        float idf = (float) Math.log(1 + (liveDocs - postings.liveDocumentFrequency + 0.5)
+                / (postings.liveDocumentFrequency + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+            int docId = postings.docIds[i];
+            Doc doc = docs.get(docId);
+            if (!doc.live) {
+                continue;
+            }
+            float tf = postings.frequencies[i];
+            float score = weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length / averageLength));
+            if (scores[docId] == 0f) {
+                matched[matchCount++] = docId;
+            }
+            scores[docId] += score;
+        }
+        return matchCount;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private void addDocument(Job job, List<String> keywords) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addTerms(frequencies, job.getTitle(), TITLE_WEIGHT);
+        addTerms(frequencies, job.getDescription(), DESCRIPTION_WEIGHT);
+        for (String keyword : keywords) {
+            addTerms(frequencies, keyword, KEYWORD_WEIGHT);
+        }
+        float length = 0f;
+        for (float frequency : frequencies.values()) {
+            length += frequency;
+        }
+
+        int docId = docs.size();
+        embed(docId, job, keywords);
+        Doc doc = new Doc(job, List.copyOf(keywords), frequencies.keySet().toArray(new String[0]), length);
+        docs.add(doc);
+        docByJobId.put(job.getId(), docId);
+        liveBitmap.add(docId);
+        forEachFacetValue(doc, (facet, value) -> facets.computeIfAbsent(facet, name -> new HashMap<>())
+                .computeIfAbsent(value, name -> new RoaringBitmap())
+                .add(docId));
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            dictionary.computeIfAbsent(entry.getKey(), term -> new Postings()).add(docId, entry.getValue());
+        }
+        liveDocs++;
+        totalLength += length;
+    }
+
+    private void removeDocument(Long jobId) {
+        Integer docId = docByJobId.remove(jobId);
+        if (docId == null) {
+            return;
+        }
+        Doc doc = docs.get(docId);
+        doc.live = false;
+        liveBitmap.remove(docId);
+        forEachFacetValue(doc, (facet, value) -> {
+            Map<String, RoaringBitmap> values = facets.get(facet);
+            RoaringBitmap bitmap = values == null ? null : values.get(value);
+            if (bitmap != null) {
+                bitmap.remove(docId);
+                if (bitmap.isEmpty()) {
+                    values.remove(value);
+                }
+            }
+        });
+        for (String term : doc.terms) {
+            Postings postings = dictionary.get(term);
+            if (postings != null && --postings.liveDocumentFrequency == 0) {
+                dictionary.remove(term);
+            }
+        }
+        liveDocs--;
+        tombstones++;
+        totalLength -= doc.length;
+    }
+
+    private void compact() {
+        List<Doc> live = new ArrayList<>(liveDocs);
+        for (Doc doc : docs) {
+            if (doc.live) {
+                live.add(doc);
+            }
+        }
+        clear();
+        for (Doc doc : live) {
+            addDocument(doc.job, doc.keywords);
+        }
+    }
+
+    private void clear() {
+        dictionary.clear();
+        docByJobId.clear();
+        docs.clear();
+        facets.clear();
+        liveBitmap.clear();
+        liveDocs = 0;
+        tombstones = 0;
+        totalLength = 0;
+    }
+
+    private void embed(int docId, Job job, List<String> keywords) {
+        int offset = docId * VECTOR_DIMENSIONS;
+        if (offset + VECTOR_DIMENSIONS > vectors.length) {
+            vectors = Arrays.copyOf(vectors, Math.max(vectors.length * 2, offset + VECTOR_DIMENSIONS));
+        }
+        Arrays.fill(vectors, offset, offset + VECTOR_DIMENSIONS, 0f);
+        addTrigrams(vectors, offset, job.getTitle(), TITLE_WEIGHT);
+        for (String keyword : keywords) {
+            addTrigrams(vectors, offset, keyword, KEYWORD_WEIGHT);
+        }
+        addTrigrams(vectors, offset, job.getDescription(), VECTOR_DESCRIPTION_WEIGHT);
+        normalize(vectors, offset);
+    }
+
+    /**
+     * Adds the character trigrams of every term, with the term padded by boundary markers,
+     * so "java" contributes "^ja", "jav", "ava" and "va$". Each trigram is hashed to a bucket
+     * and a sign, which keeps collisions from only ever adding up.
+     */
+    private static void addTrigrams(float[] vector, int offset, String text, float weight) {
+        if (text == null) {
+            return;
+        }
+        forEachTerm(text, term -> {
+            int length = term.length();
+            for (int i = -1; i < length - 1; i++) {
+                int a = i < 0 ? '^' : term.charAt(i);
+                int b = term.charAt(i + 1);
+                int c = i + 2 < length ? term.charAt(i + 2) : '$';
+                int hash = mix((a * 31 + b) * 31 + c);
+                vector[offset + (hash & (VECTOR_DIMENSIONS - 1))] += (hash & 0x80000000) == 0 ? weight : -weight;
+            }
+        });
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private static void normalize(float[] vector, int offset) {
+        float norm = (float) Math.sqrt(dot(vector, offset, vector, offset));
+        if (norm > 0f) {
+            for (int i = offset; i < offset + VECTOR_DIMENSIONS; i++) {
+                vector[i] /= norm;
+            }
+        }
+    }
+
+    private static float dot(float[] vectors, int offset, float[] query) {
+        return dot(vectors, offset, query, 0);
+    }
+
+    // Four independent accumulators keep the loop free of a serial dependency, so the JIT can vectorize it
+    private static float dot(float[] a, int aOffset, float[] b, int bOffset) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        for (int i = 0; i < VECTOR_DIMENSIONS; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static void forEachFacetValue(Doc doc, BiConsumer<String, String> consumer) {
+        if (doc.job.getType() != null) {
+            consumer.accept(TYPE_FACET, doc.job.getType().name());
+        }
+        if (doc.job.getShiftType() != null) {
+            consumer.accept(SHIFT_TYPE_FACET, doc.job.getShiftType().name());
+        }
+        if (doc.job.getLocationType() != null) {
+            consumer.accept(LOCATION_TYPE_FACET, doc.job.getLocationType().name());
+        }
+        for (String keyword : doc.keywords) {
+            String value = keyword.trim().toLowerCase();
+            if (!value.isEmpty()) {
+                consumer.accept(KEYWORD_FACET, value);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> frequencies, String text, float weight) {
+        if (text == null) {
+            return;
+        }
+        forEachTerm(text, term -> frequencies.merge(term, weight, Float::sum));
+    }
+
+    private static List<String> distinctTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text != null) {
+            forEachTerm(text, term -> {
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+            });
+        }
+        return terms;
+    }
+
+    /**
+     * Splits on anything that is not a letter, digit, '+' or '#', so "C++" and "C#" survive, and lowercases.
+     */
+    static void forEachTerm(String text, Consumer<String> consumer) {
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            boolean termChar = Character.isLetterOrDigit(c) || c == '+' || c == '#';
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                consumer.accept(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+    }
+
+    private static final class Doc {
+        private final Job job;
+        private final List<String> keywords;
+        private final String[] terms;
+        private final float length;
+        private boolean live = true;
+
+        private Doc(Job job, List<String> keywords, String[] terms, float length) {
+            this.job = job;
+            this.keywords = keywords;
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    private static final class Postings {
+        private int[] docIds = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+        private int liveDocumentFrequency;
+
+        private void add(int docId, float frequency) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docIds[size] = docId;
+            frequencies[size] = frequency;
+            size++;
+            liveDocumentFrequency++;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.tukma.jobs.services;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.tukma.auth.models.UserEntity;
 import org.tukma.jobs.dtos.JobCreateRequest;
 import org.tukma.jobs.dtos.JobEditRequest;
@@ -15,25 +20,55 @@ import org.tukma.jobs.models.Keyword;
 import org.tukma.jobs.repositories.JobRepository;
 import org.tukma.jobs.repositories.KeywordRepository;
 
-import java.util.AbstractMap.SimpleEntry;
-
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 public class JobService {
 
     private JobRepository jobRepository;
     private KeywordRepository keywordRepository;
+    private JobSearchIndex jobSearchIndex;
+    private ApplicationEventPublisher eventPublisher;
+    private AccessKeyAllocator accessKeyAllocator;
+
+    static final long JOB_COUNT_TTL_SECONDS = 30;
+    // COUNT(*) scans the whole table, so cursor pages report a briefly cached total instead
+    private final Supplier<Long> cachedJobCount =
+            Suppliers.memoizeWithExpiration(() -> jobRepository.count(), JOB_COUNT_TTL_SECONDS, TimeUnit.SECONDS);
 
 
-    public JobService(JobRepository jobRepository, KeywordRepository keywordRepository) {
+    public JobService(JobRepository jobRepository, KeywordRepository keywordRepository,
+                      JobSearchIndex jobSearchIndex, ApplicationEventPublisher eventPublisher,
+                      AccessKeyAllocator accessKeyAllocator) {
         this.jobRepository = jobRepository;
         this.keywordRepository = keywordRepository;
+        this.jobSearchIndex = jobSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.accessKeyAllocator = accessKeyAllocator;
+    }
+
+    /**
+     * Tells listeners such as the search index about the job's current state.
+     * Delivered after the surrounding transaction commits, or immediately without one.
+     */
+    private void publishChanged(Job job) {
+        List<String> keywords = keywordRepository.findByKeywordOwner_Id(job.getId()).stream()
+                .map(Keyword::getKeywordName)
+                .toList();
+        publishChanged(job, keywords);
+    }
+
+    private void publishChanged(Job job, List<String> keywords) {
+        eventPublisher.publishEvent(new JobChangedEvent(job.getId(), job, keywords));
     }
 
     public Job createJob(UserEntity jobOwner, JobCreateRequest request) {
@@ -42,7 +77,6 @@ public class JobService {
         job.setOwner(jobOwner);
         job.setTitle(request.getTitle());
         job.setAddress(request.getAddress());
-        job.setAccessKey(jobAccessKeyGenerator());
 
         // Set the new fields
         job.setType(request.getType());
@@ -51,13 +85,15 @@ public class JobService {
         job.setLocationType(request.getLocationType());
 
         // Save the job to generate an ID before adding keywords
-        jobRepository.save(job);
+        saveWithNewAccessKey(job);
         
         // Add keywords if provided
+        List<String> keywords = List.of();
         if(request.getKeywords() != null && !request.getKeywords().isEmpty()) {
-            addKeywordsToJob(request.getKeywords(), job);
+            keywords = applyKeywordDiff(job, current -> KeywordDiff.adding(current, request.getKeywords())).getResult();
         }
-        
+
+        publishChanged(job, keywords);
         return job;
     }
 
@@ -68,68 +104,67 @@ public class JobService {
 
 
     public List<String> addKeywordsToJob(List<String> keywords, Job job) {
-        List<Keyword> currentKeywords = keywordRepository.findByKeywordOwner_Id(job.getId());
-        LinkedList<String> currentKeywordsTranslation = new LinkedList<>();
-        currentKeywords.forEach((x) -> currentKeywordsTranslation.addLast(x.getKeywordName()));
-        LinkedList<String> successfulAdditions = new LinkedList<>();
-
-        for (var keyword : keywords) {
-            if (currentKeywordsTranslation.contains(keyword)) {
-                continue;
-            }
-            Keyword keywordInstance = new Keyword();
-            keywordInstance.setKeywordOwner(job);
-            keywordInstance.setKeywordName(keyword);
-            keywordRepository.save(keywordInstance);
-            successfulAdditions.addLast(keyword);
-        }
-        return successfulAdditions;
+        KeywordDiff diff = applyKeywordDiff(job, current -> KeywordDiff.adding(current, keywords));
+        publishChanged(job, diff.getResult());
+        return diff.getAdded();
     }
 
-
     public List<String> removeKeywordsToJob(List<String> keywords, Job job) {
-        List<Keyword> currentKeywords = keywordRepository.findByKeywordOwner_Id(job.getId());
-        LinkedList<String> successfulDeletes = new LinkedList<>();
-
-        for (var keyword : keywords) {
-            for (var possibleKeyword : currentKeywords) {
-                if (keyword.equals(possibleKeyword.getKeywordName())) {
-                    keywordRepository.delete(possibleKeyword);
-                    successfulDeletes.addLast(keyword);
-                    break;
-                }
+        KeywordDiff diff = applyKeywordDiff(job, current -> KeywordDiff.removing(current, keywords));
+        publishChanged(job, diff.getResult());
+        return diff.getRemovedNames();
+    }
+
+    /**
+     * Loads the job's keywords once and applies the computed diff as one batched insert and one
+     * `DELETE ... WHERE id IN`. If a concurrent writer got in first, the unique (owner, keyword)
+     * constraint rejects the insert and the diff is recomputed against the new state once.
+     */
+    private KeywordDiff applyKeywordDiff(Job job, Function<List<Keyword>, KeywordDiff> plan) {
+        try {
+            return applyKeywordDiffOnce(job, plan);
+        } catch (DataIntegrityViolationException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
             }
+            return applyKeywordDiffOnce(job, plan);
         }
-
-        return successfulDeletes;
-
-
     }
 
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-
-    private String generateSubsequence(int length) {
-        StringBuilder randomString = new StringBuilder(length);
-        Random random = new Random();
-        for (int i = 0; i < length; i++) {
-            int randomIndex = random.nextInt(CHARACTERS.length());
-            randomString.append(CHARACTERS.charAt(randomIndex));
-
+    private KeywordDiff applyKeywordDiffOnce(Job job, Function<List<Keyword>, KeywordDiff> plan) {
+        KeywordDiff diff = plan.apply(keywordRepository.findByKeywordOwner_Id(job.getId()));
+        if (!diff.getRemoved().isEmpty()) {
+            keywordRepository.deleteAllByIdInBatch(diff.getRemoved().stream().map(Keyword::getId).toList());
+        }
+        if (!diff.getAdded().isEmpty()) {
+            List<Keyword> additions = new ArrayList<>(diff.getAdded().size());
+            for (String name : diff.getAdded()) {
+                Keyword keyword = new Keyword();
+                keyword.setKeywordOwner(job);
+                keyword.setKeywordName(name);
+                additions.add(keyword);
+            }
+            keywordRepository.saveAllAndFlush(additions);
         }
-        return randomString.toString();
+        return diff;
     }
 
-    private String jobAccessKeyGenerator() {
-        StringBuilder keyBuilder = new StringBuilder();
-        keyBuilder.append(generateSubsequence(3));
-        keyBuilder.append("-");
-        keyBuilder.append(generateSubsequence(4));
-        String current = keyBuilder.toString();
-        if (jobRepository.existsByAccessKey(current)) {
-            return jobAccessKeyGenerator();
-        }
-        return current;
+    // Allocated keys are unique, so another attempt is only needed if a key from the random fallback collides
+    private static final int MAX_ACCESS_KEY_ATTEMPTS = 3;
 
+    private Job saveWithNewAccessKey(Job job) {
+        for (int attempt = 1; ; attempt++) {
+            job.setAccessKey(accessKeyAllocator.nextKey());
+            try {
+                return jobRepository.save(job);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ACCESS_KEY_ATTEMPTS || !jobRepository.existsByAccessKey(job.getAccessKey())) {
+                    throw e;
+                }
+                // The rolled-back insert left its generated id on the entity
+                job.setId(null);
+            }
+        }
     }
 
     /**
@@ -147,11 +182,12 @@ public class JobService {
         // First, delete all associated keywords
         List<Keyword> keywords = keywordRepository.findByKeywordOwner(job);
         if (!keywords.isEmpty()) {
-            keywordRepository.deleteAll(keywords);
+            keywordRepository.deleteAllInBatch(keywords);
         }
         
         // Then delete the job
         jobRepository.deleteById(job.getId());
+        eventPublisher.publishEvent(JobChangedEvent.deleted(job.getId()));
     }
 
     /**
@@ -165,11 +201,12 @@ public class JobService {
         // First, delete all associated keywords
         List<Keyword> keywords = keywordRepository.findByKeywordOwner_Id(id);
         if (!keywords.isEmpty()) {
-            keywordRepository.deleteAll(keywords);
+            keywordRepository.deleteAllInBatch(keywords);
         }
         
         // Then delete the job
         jobRepository.deleteById(id);
+        eventPublisher.publishEvent(JobChangedEvent.deleted(id));
     }
 
 
@@ -184,14 +221,7 @@ public class JobService {
      * @return List of maps containing job and its keywords
      */
     public List<Map<String, Object>> getJobsWithKeywords(UserEntity user) {
-        List<Job> jobs = getJobByOwner(user);
-        List<Map<String, Object>> jobsWithKeywords = new ArrayList<>();
-        
-        for (Job job : jobs) {
-            jobsWithKeywords.add(getJobWithKeywords(job));
-        }
-        
-        return jobsWithKeywords;
+        return getJobsWithKeywords(getJobByOwner(user));
     }
     
     /**
@@ -209,11 +239,8 @@ public class JobService {
         // Fetch page of jobs
         Page<Job> jobsPage = jobRepository.findByOwner_Id(user.getId(), pageable);
         
-        // Convert jobs to job+keywords map
-        List<Map<String, Object>> jobsWithKeywords = new ArrayList<>();
-        for (Job job : jobsPage.getContent()) {
-            jobsWithKeywords.add(getJobWithKeywords(job));
-        }
+        // Convert jobs to job+keywords map, loading the page's keywords in one query
+        List<Map<String, Object>> jobsWithKeywords = getJobsWithKeywords(jobsPage.getContent());
         
         // Create pagination metadata
         boolean hasNextPage = jobsPage.getNumber() < jobsPage.getTotalPages() - 1;
@@ -243,26 +270,126 @@ public class JobService {
         // Fetch page of all jobs
         Page<Job> jobsPage = jobRepository.findAll(pageable);
         
-        // Convert jobs to job+keywords map
-        List<Map<String, Object>> jobsWithKeywords = new ArrayList<>();
-        for (Job job : jobsPage.getContent()) {
-            jobsWithKeywords.add(getJobWithKeywords(job));
-        }
+        // Convert jobs to job+keywords map, loading the page's keywords in one query
+        List<Map<String, Object>> jobsWithKeywords = getJobsWithKeywords(jobsPage.getContent());
         
-        // Create pagination metadata
+        // Create pagination metadata, with a cursor so clients can continue in keyset mode
         boolean hasNextPage = jobsPage.getNumber() < jobsPage.getTotalPages() - 1;
+        List<Job> content = jobsPage.getContent();
         PagedJobsResponse.PaginationMetadata metadata = new PagedJobsResponse.PaginationMetadata(
                 jobsPage.getNumber(),
                 jobsPage.getSize(),
                 jobsPage.getTotalElements(),
                 jobsPage.getTotalPages(),
-                hasNextPage
+                hasNextPage,
+                hasNextPage ? encodeCursor(jobsPage.getNumber() + 1, content.get(content.size() - 1)) : null
         );
         
         // Create and return response
         return new PagedJobsResponse(jobsWithKeywords, metadata);
     }
+
+    /**
+     * Get a page of all jobs for applicants with keyset pagination on (updatedAt, id), most recent first.
+     * Unlike offset pages, the cost of a page does not grow with how deep it is. The total is
+     * the cached job count, so it may lag recent changes by up to {@link #JOB_COUNT_TTL_SECONDS} seconds.
+     *
+     * @param cursor The nextCursor of the previous page, or null/empty for the first page
+     * @param size   The page size
+     * @return PagedJobsResponse containing the jobs with keywords and pagination metadata
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public PagedJobsResponse getJobsForApplicantsAfter(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        // One extra row tells whether there is a next page without counting
+        Pageable limit = PageRequest.of(0, size + 1);
+        int page = 0;
+        List<Job> jobs;
+        if (cursor == null || cursor.isBlank()) {
+            jobs = jobRepository.findFirstByUpdatedAt(limit);
+        } else {
+            JobCursor position = decodeCursor(cursor);
+            page = position.page;
+            jobs = jobRepository.findAfterByUpdatedAt(position.updatedAt, position.id, limit);
+        }
+
+        boolean hasNextPage = jobs.size() > size;
+        if (hasNextPage) {
+            jobs = jobs.subList(0, size);
+        }
+
+        long totalElements = cachedJobCount.get();
+        PagedJobsResponse.PaginationMetadata metadata = new PagedJobsResponse.PaginationMetadata(
+                page,
+                size,
+                totalElements,
+                (int) ((totalElements + size - 1) / size),
+                hasNextPage,
+                hasNextPage ? encodeCursor(page + 1, jobs.get(jobs.size() - 1)) : null
+        );
+        return new PagedJobsResponse(getJobsWithKeywords(jobs), metadata);
+    }
+
+    // The cursor is "page|updatedAt|id" in URL-safe base64; clients treat it as opaque
+    private static String encodeCursor(int page, Job last) {
+        String raw = page + "|" + last.getUpdatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JobCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new JobCursor(Integer.parseInt(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    private static final class JobCursor {
+        private final int page;
+        private final LocalDateTime updatedAt;
+        private final Long id;
+
+        private JobCursor(int page, LocalDateTime updatedAt, Long id) {
+            this.page = page;
+            this.updatedAt = updatedAt;
+            this.id = id;
+        }
+    }
     
+    /**
+     * Get jobs with their associated keywords, fetching the keywords for all jobs in one query
+     *
+     * @param jobs The job entities, in the order they should be returned
+     * @return List of maps containing each job and its keywords
+     */
+    public List<Map<String, Object>> getJobsWithKeywords(List<Job> jobs) {
+        List<Map<String, Object>> jobsWithKeywords = new ArrayList<>(jobs.size());
+        if (jobs.isEmpty()) {
+            return jobsWithKeywords;
+        }
+
+        Map<Long, List<String>> keywordsByJob = new HashMap<>();
+        List<Long> jobIds = jobs.stream().map(Job::getId).toList();
+        for (Object[] row : keywordRepository.findOwnerIdsAndNamesByOwnerIds(jobIds)) {
+            keywordsByJob.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        for (Job job : jobs) {
+            Map<String, Object> jobMap = new HashMap<>();
+            jobMap.put("job", job);
+            jobMap.put("keywords", keywordsByJob.getOrDefault(job.getId(), List.of()));
+            jobsWithKeywords.add(jobMap);
+        }
+        return jobsWithKeywords;
+    }
+
     /**
      * Get a single job with its associated keywords
      *
@@ -308,27 +435,18 @@ public class JobService {
         // Save updated job
         jobRepository.save(job);
         
-        // Handle keywords update if provided
+        // Handle keywords update if provided, touching only the keywords that changed
         if (request.getKeywords() != null) {
-            // Get existing keywords
-            List<Keyword> existingKeywords = keywordRepository.findByKeywordOwner(job);
-            
-            // Remove existing keywords
-            if (!existingKeywords.isEmpty()) {
-                keywordRepository.deleteAll(existingKeywords);
-            }
-            
-            // Add new keywords
-            if (!request.getKeywords().isEmpty()) {
-                addKeywordsToJob(request.getKeywords(), job);
-            }
+            KeywordDiff diff = applyKeywordDiff(job, current -> KeywordDiff.replacing(current, request.getKeywords()));
+            publishChanged(job, diff.getResult());
+        } else {
+            publishChanged(job);
         }
-        
         return job;
     }
     
     /**
-     * Search for jobs based on semantic similarity to the query
+     * Search for jobs ranked by BM25 relevance to the query
      *
      * @param query The search query
      * @param page The page number (0-based)
@@ -336,103 +454,45 @@ public class JobService {
      * @return PagedJobsResponse containing jobs that match the search criteria
      */
     public PagedJobsResponse searchJobs(String query, int page, int size) {
-        // First, get all jobs matching the query using the repository method
-        List<Job> matchingJobs = jobRepository.findBySearchQuery(query);
-        
-        // For each job, calculate a semantic similarity score
-        List<Map.Entry<Job, Double>> scoredJobs = new ArrayList<>();
-        for (Job job : matchingJobs) {
-            double score = calculateSemanticSimilarity(job, query);
-            scoredJobs.add(new SimpleEntry<>(job, score));
-        }
-        
-        // Sort by score in descending order
-        scoredJobs.sort(Map.Entry.<Job, Double>comparingByValue().reversed());
-        
-        // Paginate the results
-        int start = page * size;
-        int end = Math.min(start + size, scoredJobs.size());
-        List<Map.Entry<Job, Double>> pagedScoredJobs = 
-                (start < scoredJobs.size()) ? scoredJobs.subList(start, end) : new ArrayList<>();
-        
-        // Convert to the expected format
-        List<Map<String, Object>> jobsWithKeywords = new ArrayList<>();
-        for (Map.Entry<Job, Double> entry : pagedScoredJobs) {
-            Map<String, Object> jobMap = getJobWithKeywords(entry.getKey());
-            // Add the semantic similarity score to the response
-            jobMap.put("relevanceScore", entry.getValue());
+        return searchJobs(query, JobFilter.NONE, page, size);
+    }
+
+    /**
+     * Search and filter jobs from the in-memory index, with facet counts.
+     * Without a query, all jobs passing the filter are returned, most recently updated first.
+     *
+     * @param query The search query, may be null or empty
+     * @param filter The facet selections
+     * @param page The page number (0-based)
+     * @param size The page size
+     * @return PagedJobsResponse containing the matching jobs, pagination metadata and facet counts
+     */
+    public PagedJobsResponse searchJobs(String query, JobFilter filter, int page, int size) {
+        JobSearchIndex.SearchResult result = jobSearchIndex.search(query, filter, page, size);
+        boolean ranked = query != null && !query.isBlank();
+
+        List<Map<String, Object>> jobsWithKeywords = new ArrayList<>(result.getHits().size());
+        for (JobSearchIndex.SearchHit hit : result.getHits()) {
+            Map<String, Object> jobMap = new HashMap<>();
+            jobMap.put("job", hit.getJob());
+            jobMap.put("keywords", hit.getKeywords());
+            if (ranked) {
+                jobMap.put("relevanceScore", hit.getScore());
+            }
             jobsWithKeywords.add(jobMap);
         }
-        
+
         // Create pagination metadata
-        int totalPages = (int) Math.ceil((double) scoredJobs.size() / size);
+        int totalPages = size > 0 ? (int) Math.ceil((double) result.getTotalMatches() / size) : 0;
         boolean hasNextPage = page < totalPages - 1;
         PagedJobsResponse.PaginationMetadata metadata = new PagedJobsResponse.PaginationMetadata(
                 page,
                 size,
-                scoredJobs.size(),
+                result.getTotalMatches(),
                 totalPages,
                 hasNextPage
         );
-        
-        return new PagedJobsResponse(jobsWithKeywords, metadata);
-    }
 
-    /**
-     * Calculate semantic similarity between a job and a query
-     * This is a simple implementation that could be enhanced with NLP or ML techniques
-     *
-     * @param job The job to compare
-     * @param query The search query
-     * @return A similarity score between 0 and 1
-     */
-    private double calculateSemanticSimilarity(Job job, String query) {
-        query = query.toLowerCase();
-        String jobTitle = job.getTitle().toLowerCase();
-        String jobDescription = job.getDescription().toLowerCase();
-        
-        // Get keywords for this job
-        List<Keyword> keywords = keywordRepository.findByKeywordOwner(job);
-        
-        double score = 0.0;
-        
-        // Title match (weighted higher)
-        if (jobTitle.contains(query)) {
-            score += 0.5;
-        }
-        
-        // Description match
-        if (jobDescription.contains(query)) {
-            score += 0.3;
-        }
-        
-        // Keyword matches
-        for (Keyword keyword : keywords) {
-            if (keyword.getKeywordName().toLowerCase().contains(query) ||
-                query.contains(keyword.getKeywordName().toLowerCase())) {
-                score += 0.2;
-                break;  // Count only once for keywords
-            }
-        }
-        
-        // Advanced scoring: partial word matches for title and keywords
-        String[] queryWords = query.split("\\s+");
-        for (String word : queryWords) {
-            if (word.length() > 3) {  // Only consider meaningful words
-                if (jobTitle.contains(word)) {
-                    score += 0.1;
-                }
-                
-                for (Keyword keyword : keywords) {
-                    if (keyword.getKeywordName().toLowerCase().contains(word)) {
-                        score += 0.1;
-                        break;  // Count only once per word for keywords
-                    }
-                }
-            }
-        }
-        
-        // Cap the score at 1.0
-        return Math.min(score, 1.0);
+        return new PagedJobsResponse(jobsWithKeywords, metadata, result.getFacets());
     }
 }
@@ -0,0 +1,52 @@
+package org.tukma.jobs.services;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Removes duplicate keywords of a job before Hibernate updates the schema, so the
+ * `uk_keyword_owner_name` constraint on {@link org.tukma.jobs.models.Keyword} can be added to
+ * databases written by older versions. Keeps the oldest row of each (job, name) pair.
+ *
+ * The entity manager factory depends on this bean (see {@link org.tukma.config.JpaConfig}), so it
+ * runs on plain JDBC before the schema update. Once the constraint exists it finds nothing to do.
+ */
+@Component
+public class KeywordDeduplicator {
+
+    private static final Logger logger = Logger.getLogger(KeywordDeduplicator.class.getName());
+
+    // Selected first and deleted by id, since MySQL cannot delete from a table it reads in a subquery
+    private static final String DUPLICATES = "SELECT k.id FROM keyword k WHERE EXISTS (SELECT 1 FROM keyword o"
+            + " WHERE o.keyword_owner_id = k.keyword_owner_id AND o.keyword_name = k.keyword_name AND o.id < k.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public KeywordDeduplicator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void deduplicate() {
+        List<Long> duplicates;
+        try {
+            duplicates = jdbcTemplate.queryForList(DUPLICATES, Long.class);
+        } catch (DataAccessException e) {
+            // No keyword table yet: the schema update creates it with the constraint
+            logger.log(Level.FINE, "Skipping keyword deduplication", e);
+            return;
+        }
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM keyword WHERE id = ?", duplicates, 500,
+                (statement, id) -> statement.setLong(1, id));
+        logger.info("Removed " + duplicates.size() + " duplicate keywords");
+    }
+}
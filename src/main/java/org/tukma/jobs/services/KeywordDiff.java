@@ -0,0 +1,113 @@
+package org.tukma.jobs.services;
+
+import org.tukma.jobs.models.Keyword;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The keyword rows to insert and delete to move a job from its current keywords to the
+ * wanted ones. Built with hash lookups, so the cost is linear in both lists.
+ */
+final class KeywordDiff {
+
+    private final List<String> added;
+    private final List<String> removedNames;
+    private final List<Keyword> removed;
+    private final List<String> result;
+
+    private KeywordDiff(List<String> added, List<String> removedNames, List<Keyword> removed, List<String> result) {
+        this.added = added;
+        this.removedNames = removedNames;
+        this.removed = removed;
+        this.result = result;
+    }
+
+    /**
+     * Adds the given keywords that the job does not have yet.
+     */
+    static KeywordDiff adding(List<Keyword> current, Collection<String> keywords) {
+        return between(current, keywords, Set.of());
+    }
+
+    /**
+     * Removes the given keywords that the job has.
+     */
+    static KeywordDiff removing(List<Keyword> current, Collection<String> keywords) {
+        return between(current, List.of(), new HashSet<>(keywords));
+    }
+
+    /**
+     * Makes the job's keywords exactly the given ones.
+     */
+    static KeywordDiff replacing(List<Keyword> current, Collection<String> keywords) {
+        Set<String> wanted = new HashSet<>(keywords);
+        Set<String> unwanted = new HashSet<>();
+        for (String name : names(current)) {
+            if (!wanted.contains(name)) {
+                unwanted.add(name);
+            }
+        }
+        return between(current, keywords, unwanted);
+    }
+
+    private static KeywordDiff between(List<Keyword> current, Collection<String> toAdd, Set<String> toRemove) {
+        Set<String> result = new LinkedHashSet<>();
+        Set<String> removedNames = new LinkedHashSet<>();
+        List<Keyword> removed = new ArrayList<>();
+        for (Keyword keyword : current) {
+            String name = keyword.getKeywordName();
+            if (toRemove.contains(name)) {
+                removedNames.add(name);
+                removed.add(keyword);
+            } else if (!result.add(name)) {
+                // A row duplicated before the unique constraint existed
+                removed.add(keyword);
+            }
+        }
+
+        List<String> added = new ArrayList<>();
+        for (String name : toAdd) {
+            if (name != null && result.add(name)) {
+                added.add(name);
+            }
+        }
+        return new KeywordDiff(added, new ArrayList<>(removedNames), removed, new ArrayList<>(result));
+    }
+
+    private static Set<String> names(List<Keyword> keywords) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Keyword keyword : keywords) {
+            names.add(keyword.getKeywordName());
+        }
+        return names;
+    }
+
+    boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /** Names to insert, in request order and without duplicates */
+    List<String> getAdded() {
+        return added;
+    }
+
+    /** Rows to delete */
+    List<Keyword> getRemoved() {
+        return removed;
+    }
+
+    /** The names the job has once the diff is applied */
+    List<String> getResult() {
+        return result;
+    }
+
+    /** Names of the requested keywords the job had, each once */
+    List<String> getRemovedNames() {
+        return removedNames;
+    }
+}
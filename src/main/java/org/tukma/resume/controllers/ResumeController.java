@@ -10,6 +10,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -22,15 +23,21 @@ import org.tukma.resume.dtos.ResumeUploadRequest;
 import org.tukma.resume.dtos.ResumeUploadResponse;
 import org.tukma.resume.dtos.SimilarityScoreResponse;
 import org.tukma.resume.models.Resume;
-import org.tukma.resume.services.ResumeClientService;
 import org.tukma.resume.services.ResumeDataService;
+import org.tukma.resume.services.ResumeStatusTracker;
+import org.tukma.resume.services.ResumeUploadService;
+import org.tukma.resume.services.SimilarityRefreshService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
@@ -44,65 +51,75 @@ import org.springframework.http.HttpStatus;
 @RequestMapping("/api/v1/resume")
 public class ResumeController {
 
-    private final ResumeClientService resumeClientService;
     private final ResumeDataService resumeDataService;
     private final org.tukma.jobs.services.JobService jobService;
+    private final SimilarityRefreshService similarityRefreshService;
+    private final ResumeUploadService resumeUploadService;
+    private final ResumeStatusTracker resumeStatusTracker;
 
     @Autowired
-    public ResumeController(ResumeClientService resumeClientService, ResumeDataService resumeDataService, org.tukma.jobs.services.JobService jobService) {
-        this.resumeClientService = resumeClientService;
+    public ResumeController(ResumeDataService resumeDataService,
+                            org.tukma.jobs.services.JobService jobService,
+                            SimilarityRefreshService similarityRefreshService,
+                            ResumeUploadService resumeUploadService,
+                            ResumeStatusTracker resumeStatusTracker) {
         this.resumeDataService = resumeDataService;
         this.jobService = jobService;
+        this.similarityRefreshService = similarityRefreshService;
+        this.resumeUploadService = resumeUploadService;
+        this.resumeStatusTracker = resumeStatusTracker;
     }
 
     /**
      * Uploads a resume file with associated keywords for processing.
+     * The file is streamed to the resume service from disk and the request completes asynchronously.
      *
      * @param request Contains the resume file (PDF) and list of keywords for analysis
-     * @return ResponseEntity containing a hash identifier for tracking the upload
-     * @throws IOException if there are issues reading the resume file
+     * @return Mono emitting a ResponseEntity containing a hash identifier for tracking the upload
      */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> uploadResume(@Valid @ModelAttribute ResumeUploadRequest request)
-            throws IOException {
+    public Mono<ResponseEntity<?>> uploadResume(@Valid @ModelAttribute ResumeUploadRequest request) {
         if (request.getKeywords() == null || request.getKeywords().isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "error", "At least one keyword is required for general resume uploads"
-            ));
+            )));
         }
-        
-        return ResponseEntity.ok(
-                resumeClientService.uploadResume(request.getResume().getBytes(), request.getKeywords())
-                        .block()
-        );
+
+        return resumeUploadService.upload(request.getResume(), request.getKeywords())
+                .map(ResponseEntity::ok);
     }
 
     /**
      * Uploads a resume file for a specific job application using job access key.
      * Uses keywords from the job instead of requesting them from the user.
+     * The file is streamed to the resume service from disk and the request completes asynchronously.
      *
      * @param accessKey The access key of the job being applied for
      * @param request   Contains the resume file (keywords are extracted from the job)
-     * @return ResponseEntity containing a hash identifier
-     * @throws IOException if there are issues reading the resume file
+     * @return Mono emitting a ResponseEntity containing a hash identifier
      */
     @PostMapping(value = "/upload-for-job/{accessKey}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> uploadResumeForJob(
+    public Mono<ResponseEntity<?>> uploadResumeForJob(
             @PathVariable String accessKey,
-            @ModelAttribute ResumeUploadRequest request)
-            throws IOException {
+            @ModelAttribute ResumeUploadRequest request) {
 
-        // Get current user
+        // Get current user; the security context is not available once the upload completes
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         UserEntity currentUser = (UserEntity) auth.getPrincipal();
         Long userId = currentUser.getId();
 
+        if (request.getResume() == null) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
+                    "error", "Resume file is required"
+            )));
+        }
+
         // Find job by access key
         Job job = jobService.getByAccessKey(accessKey);
         if (job == null) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "error", "Job not found with access key: " + accessKey
-            ));
+            )));
         }
         
         // Get keywords from the job instead of the request
@@ -110,74 +127,77 @@ public class ResumeController {
         List<String> keywords = (List<String>) jobWithKeywords.get("keywords");
         
         if (keywords == null || keywords.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
                     "error", "This job has no keywords defined for resume matching"
-            ));
-        }
-
-        // Upload resume using client service with job keywords
-        ResumeUploadResponse response = resumeClientService.uploadResume(
-                request.getResume().getBytes(),
-                keywords
-        ).block();
-
-        // Store initial entry in database with null results (will be updated later)
-        if (response != null) {
-            resumeDataService.saveResumeData(response.getHash(), null, job.getId(), userId);
+            )));
         }
 
-        return ResponseEntity.ok(response);
+        Long jobId = job.getId();
+        return resumeUploadService.upload(request.getResume(), keywords)
+                // Storing the entry is a blocking JPA call, so it must not run on a WebClient thread
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    // Store initial entry in database with null results (will be updated later)
+                    resumeDataService.saveResumeData(response.getHash(), null, jobId, userId);
+                    return ResponseEntity.ok(response);
+                });
     }
 
     /**
      * Retrieves the similarity score for a resume and stores it in the database.
      * If the resume is associated with a job, it will update the job association.
+     * Results that are already stored are final and are returned without calling the microservice.
+     * Pending resumes are answered from the poller shared by every client watching this hash,
+     * so repeated requests do not each call the microservice.
      *
      * @param hash The unique identifier returned from the upload endpoint
-     * @return ResponseEntity containing the similarity analysis results
+     * @return Mono emitting a ResponseEntity containing the similarity analysis results,
+     *         which are null until processing has completed
      */
     @GetMapping("/score/{hash}")
-    public ResponseEntity<?> getSimilarityScore(@PathVariable String hash) {
-        // Get score from microservice
-        SimilarityScoreResponse response = resumeClientService.getSimilarityScore(hash).block();
-
-        // Try to find resume in database to associate with job
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated()) {
-            UserEntity currentUser = (UserEntity) auth.getPrincipal();
-            Long userId = currentUser.getId();
-
-            // Check if we have this resume stored
-            Optional<Resume> resumeOpt = resumeDataService.getResumeByHash(hash);
-            if (resumeOpt.isPresent() && response != null && response.getResult() != null) {
-                Resume resume = resumeOpt.get();
-                Job job = resume.getJob();
-
-                // Update the resume data with results
-                resumeDataService.saveResumeData(
-                        hash,
-                        response.getResult().toString(),
-                        job.getId(),
-                        userId
-                );
-            }
-        }
-
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<SimilarityScoreResponse>> getSimilarityScore(@PathVariable String hash) {
+        return Mono.fromCallable(() -> resumeDataService.getResumeByHash(hash))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(stored -> {
+                    if (stored.isPresent() && stored.get().getResults() != null && !stored.get().getResults().isEmpty()) {
+                        return Mono.just(ResponseEntity.ok(new SimilarityScoreResponse(hash,
+                                resumeDataService.parseResumeResults(stored.get()))));
+                    }
+                    // The poller stores the results on the resume once processing completes
+                    return resumeStatusTracker.current(hash)
+                            .map(update -> ResponseEntity.ok(new SimilarityScoreResponse(hash,
+                                    ResumeStatusTracker.COMPLETED.equals(update.getStatus()) ? update.getResult() : null)));
+                });
     }
 
     /**
      * Checks the processing status of a resume upload.
+     * The status comes from the poller shared by every client watching this hash.
      *
      * @param hash The unique identifier returned from the upload endpoint
-     * @return ResponseEntity containing the current processing status
+     * @return Mono emitting a ResponseEntity containing the current processing status
      */
     @GetMapping("/status/{hash}")
-    public ResponseEntity<ProcessingStatusResponse> checkStatus(@PathVariable String hash) {
-        return ResponseEntity.ok(
-                resumeClientService.checkProcessingStatus(hash)
-                        .block()
-        );
+    public Mono<ResponseEntity<ProcessingStatusResponse>> checkStatus(@PathVariable String hash) {
+        return resumeStatusTracker.current(hash)
+                .map(update -> ResponseEntity.ok(new ProcessingStatusResponse(update.getStatus())));
+    }
+
+    /**
+     * Streams the processing status of a resume upload as server-sent events.
+     * Each change is sent as a `status` event; the final `done` event carries the results
+     * once they are stored, or the FAILED / TIMED_OUT status.
+     *
+     * @param hash The unique identifier returned from the upload endpoint
+     * @return The event stream
+     */
+    @GetMapping(value = "/status/{hash}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ResumeStatusTracker.StatusUpdate>> streamStatus(@PathVariable String hash) {
+        return resumeStatusTracker.watch(hash)
+                .map(update -> ServerSentEvent.<ResumeStatusTracker.StatusUpdate>builder()
+                        .event(update.isTerminal() ? "done" : "status")
+                        .data(update)
+                        .build());
     }
 
     /**
@@ -202,7 +222,8 @@ public class ResumeController {
     }
 
     /**
-     * Get all resumes submitted for a specific job
+     * Get all resumes submitted for a specific job, highest aggregate score first,
+     * followed by the resumes that are still being processed
      *
      * @param accessKey The job access key
      * @return List of resumes with their results
@@ -227,13 +248,16 @@ public class ResumeController {
                 ));
             }
 
-            List<Resume> resumes = resumeDataService.getResumesByJob(job.getId());
+            // Best aggregate score first; parsed results come from the score rows, not the stored JSON
+            List<Resume> resumes = resumeDataService.getResumesByJobRankedByScore(job.getId());
+            Map<Long, Map<String, Map<String, Object>>> scoresByResume =
+                    resumeDataService.getKeywordScoresByResume(resumes);
 
             // Convert resumes to a more frontend-friendly format with parsed results
             List<Map<String, Object>> formattedResumes = resumes.stream().map(resume -> {
                 Map<String, Object> formatted = new HashMap<>();
                 formatted.put("resume", resume);
-                formatted.put("parsedResults", resumeDataService.parseResumeResults(resume));
+                formatted.put("parsedResults", scoresByResume.get(resume.getId()));
                 return formatted;
             }).collect(java.util.stream.Collectors.toList());
 
@@ -422,37 +446,63 @@ public class ResumeController {
      * @return List of all resumes with their similarity scores
      */
     @GetMapping("/all-similarity-scores")
-    public ResponseEntity<?> getAllSimilarityScores() {
-        List<Resume> allResumes = resumeDataService.getAllResumes();
-        
+    public ResponseEntity<?> getAllSimilarityScores(@RequestParam(defaultValue = "false") boolean force) {
         List<Map<String, Object>> scoresData = new ArrayList<>();
-        
-        for (Resume resume : allResumes) {
-            // Get current similarity score from the microservice
-            SimilarityScoreResponse scoreResponse = resumeClientService.getSimilarityScore(resume.getResumeHash()).block();
-            
-            if (scoreResponse != null && scoreResponse.getResult() != null) {
-                Map<String, Object> scoreInfo = new HashMap<>();
-                scoreInfo.put("resumeId", resume.getId());
-                scoreInfo.put("resumeHash", resume.getResumeHash());
-                scoreInfo.put("jobId", resume.getJob().getId());
-                scoreInfo.put("score", scoreResponse.getResult());
-                
-                // Store the updated result in the database
-                resumeDataService.saveResumeData(
-                    resume.getResumeHash(),
-                    scoreResponse.getResult().toString(),
-                    resume.getJob().getId(),
-                    resume.getOwner().getId()
-                );
-                
-                scoresData.add(scoreInfo);
+        for (SimilarityRefreshService.Outcome outcome : similarityRefreshService.refreshAll(force).toIterable()) {
+            if (outcome.getStatus() != SimilarityRefreshService.Status.FAILED) {
+                scoresData.add(scoreInfo(outcome));
             }
         }
-            
+
         return ResponseEntity.ok(Map.of(
             "total", scoresData.size(),
             "scores", scoresData
         ));
     }
+
+    /**
+     * Same refresh as /all-similarity-scores, streamed as server-sent events while it runs.
+     * Each `score` event carries one resume and the progress so far; a final `done` event has the totals.
+     *
+     * @param force Whether to refetch resumes whose results are already stored
+     * @return The event stream
+     */
+    @GetMapping(value = "/all-similarity-scores/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> streamAllSimilarityScores(
+            @RequestParam(defaultValue = "false") boolean force) {
+        long total = similarityRefreshService.countResumes();
+        AtomicLong completed = new AtomicLong();
+        Map<SimilarityRefreshService.Status, AtomicLong> counts = new EnumMap<>(SimilarityRefreshService.Status.class);
+        for (SimilarityRefreshService.Status status : SimilarityRefreshService.Status.values()) {
+            counts.put(status, new AtomicLong());
+        }
+
+        Flux<ServerSentEvent<Map<String, Object>>> scores = similarityRefreshService.refreshAll(force)
+                .map(outcome -> {
+                    counts.get(outcome.getStatus()).incrementAndGet();
+                    Map<String, Object> data = scoreInfo(outcome);
+                    data.put("status", outcome.getStatus());
+                    data.put("completed", completed.incrementAndGet());
+                    data.put("total", total);
+                    return ServerSentEvent.<Map<String, Object>>builder().event("score").data(data).build();
+                });
+        Mono<ServerSentEvent<Map<String, Object>>> done = Mono.fromSupplier(() -> {
+            Map<String, Object> data = new HashMap<>();
+            data.put("completed", completed.get());
+            data.put("refreshed", counts.get(SimilarityRefreshService.Status.REFRESHED).get());
+            data.put("stored", counts.get(SimilarityRefreshService.Status.STORED).get());
+            data.put("failed", counts.get(SimilarityRefreshService.Status.FAILED).get());
+            return ServerSentEvent.<Map<String, Object>>builder().event("done").data(data).build();
+        });
+        return scores.concatWith(done);
+    }
+
+    private static Map<String, Object> scoreInfo(SimilarityRefreshService.Outcome outcome) {
+        Map<String, Object> scoreInfo = new HashMap<>();
+        scoreInfo.put("resumeId", outcome.getResumeId());
+        scoreInfo.put("resumeHash", outcome.getResumeHash());
+        scoreInfo.put("jobId", outcome.getJobId());
+        scoreInfo.put("score", outcome.getScore());
+        return scoreInfo;
+    }
 }
@@ -0,0 +1,21 @@
+package org.tukma.resume.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a resume upload is refused before it is sent to the resume service,
+ * either because the file is too large or because too many bytes are already in flight
+ */
+public class ResumeUploadRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public ResumeUploadRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -9,7 +9,9 @@ import org.tukma.jobs.models.Job;
 @Entity
 @Getter
 @Setter
-@Table(name = "resumes")
+// Ranks a job's applicants by score straight from the index
+@Table(name = "resumes", indexes = @Index(name = "idx_resumes_job_aggregate_score",
+        columnList = "job_id, aggregate_score DESC"))
 public class Resume {
 
     @Id
@@ -22,6 +24,10 @@ public class Resume {
     @Column(columnDefinition = "TEXT")
     private String results;
 
+    // Mean similarity score over the keywords in results; null until results are stored
+    @Column(name = "aggregate_score")
+    private Double aggregateScore;
+
     @ManyToOne
     @JoinColumn(name = "job_id", referencedColumnName = "id", nullable = false)
     private Job job;
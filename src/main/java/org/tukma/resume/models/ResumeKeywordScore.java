@@ -0,0 +1,41 @@
+package org.tukma.resume.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One keyword's similarity result for a resume, normalized out of {@link Resume#getResults()}
+ * so scores can be read, ranked and filtered in SQL.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "resume_keyword_scores",
+        uniqueConstraints = @UniqueConstraint(name = "uk_resume_keyword_score", columnNames = {"resume_id", "keyword"}),
+        indexes = @Index(name = "idx_resume_keyword_scores_keyword_score", columnList = "keyword, similarity_score DESC"))
+public class ResumeKeywordScore {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "resume_id", referencedColumnName = "id", nullable = false)
+    // Deleting a resume, e.g. in cleanup-duplicates, takes its scores with it
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Resume resume;
+
+    @Column(nullable = false)
+    private String keyword;
+
+    @Column(name = "similarity_score")
+    private Double similarityScore;
+
+    @Column(columnDefinition = "TEXT")
+    private String bestMatchingNgram;
+}
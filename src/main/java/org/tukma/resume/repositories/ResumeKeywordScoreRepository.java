@@ -0,0 +1,22 @@
+package org.tukma.resume.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.tukma.resume.models.ResumeKeywordScore;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumeKeywordScoreRepository extends JpaRepository<ResumeKeywordScore, Long> {
+
+    // Scores of many resumes in one query, best first within each resume
+    @Query("SELECT s FROM ResumeKeywordScore s WHERE s.resume.id IN :resumeIds " +
+            "ORDER BY s.resume.id, s.similarityScore DESC NULLS LAST")
+    List<ResumeKeywordScore> findByResumeIds(@Param("resumeIds") Collection<Long> resumeIds);
+
+    @Modifying
+    @Query("DELETE FROM ResumeKeywordScore s WHERE s.resume.id = :resumeId")
+    void deleteByResumeId(@Param("resumeId") Long resumeId);
+}
@@ -1,6 +1,9 @@
 package org.tukma.resume.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.tukma.resume.models.Resume;
 
 import java.util.List;
@@ -12,4 +15,21 @@ public interface ResumeRepository extends JpaRepository<Resume, Long> {
     List<Resume> findByOwner_Id(Long ownerId);
     Optional<Resume> findByJob_IdAndOwner_Id(Long jobId, Long ownerId);
     List<Resume> findAllByJob_IdAndOwner_Id(Long jobId, Long ownerId);
+
+    // Every resume with its job and both owners in one query, instead of a select per eager association
+    @Query("SELECT r FROM Resume r JOIN FETCH r.job j JOIN FETCH j.owner JOIN FETCH r.owner")
+    List<Resume> findAllWithJob();
+
+    // Scored applicants of a job, best first; served by idx_resumes_job_aggregate_score
+    @Query("SELECT r FROM Resume r WHERE r.job.id = :jobId AND r.aggregateScore IS NOT NULL " +
+            "ORDER BY r.aggregateScore DESC, r.id")
+    List<Resume> findScoredByJobId(@Param("jobId") Long jobId);
+
+    // Applicants whose results have not arrived yet
+    List<Resume> findByJob_IdAndAggregateScoreIsNullOrderByIdAsc(Long jobId);
+
+    // Resumes holding results from before scores were normalized, in id order for keyset paging
+    @Query("SELECT r.id FROM Resume r WHERE r.results IS NOT NULL AND r.aggregateScore IS NULL AND r.id > :afterId " +
+            "AND NOT EXISTS (SELECT s.id FROM ResumeKeywordScore s WHERE s.resume = r) ORDER BY r.id")
+    List<Long> findIdsWithUnscoredResults(@Param("afterId") Long afterId, Pageable pageable);
 }
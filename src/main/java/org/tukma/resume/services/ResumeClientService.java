@@ -2,6 +2,7 @@ package org.tukma.resume.services;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Service;
@@ -13,9 +14,12 @@ import org.tukma.resume.dtos.SimilarityScoreResponse;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Service
 public class ResumeClientService {
+    private static final Logger logger = Logger.getLogger(ResumeClientService.class.getName());
     private final WebClient webClient;
     private static final String BASE_URL = "https://ai.tukma.work";
 
@@ -26,8 +30,16 @@ public class ResumeClientService {
     }
 
     public Mono<ResumeUploadResponse> uploadResume(byte[] resumeBytes, List<String> keywords) {
+        return uploadResume(new ByteArrayResource(resumeBytes), keywords);
+    }
+
+    /**
+     * Uploads a resume from any resource. File-backed resources are streamed in small buffers
+     * rather than read into memory first.
+     */
+    public Mono<ResumeUploadResponse> uploadResume(Resource resume, List<String> keywords) {
         MultipartBodyBuilder bodyBuilder = new MultipartBodyBuilder();
-        bodyBuilder.part("resume", new ByteArrayResource(resumeBytes))
+        bodyBuilder.part("resume", resume)
                 .filename("resume.pdf")
                 .contentType(MediaType.APPLICATION_PDF);
 
@@ -56,7 +68,9 @@ public class ResumeClientService {
     }
 
     public Mono<ProcessingStatusResponse> checkProcessingStatus(String hash) {
-        System.out.println("Checking status for hash: " + hash);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "Checking status for hash: {0}", hash);
+        }
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/api/v1/check-status")
@@ -64,7 +78,7 @@ public class ResumeClientService {
                         .build())
                 .retrieve()
                 .bodyToMono(ProcessingStatusResponse.class)
-                .doOnError(e -> System.err.println("Error checking status: " + e.getMessage()))
+                .doOnError(e -> logger.log(Level.WARNING, "Error checking status: {0}", e.getMessage()))
                 .onErrorResume(throwable ->
                         Mono.error(new RuntimeException("Failed to check status: " + throwable.getMessage())));
     }
@@ -1,17 +1,25 @@
 package org.tukma.resume.services;
 
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.tukma.auth.models.UserEntity;
 import org.tukma.auth.repositories.UserRepository;
 import org.tukma.jobs.models.Job;
 import org.tukma.jobs.repositories.JobRepository;
 import org.tukma.resume.models.Resume;
+import org.tukma.resume.models.ResumeKeywordScore;
+import org.tukma.resume.repositories.ResumeKeywordScoreRepository;
 import org.tukma.resume.repositories.ResumeRepository;
 import org.tukma.resume.utils.ResumeResultParser;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,12 +33,21 @@ public class ResumeDataService {
     private final ResumeRepository resumeRepository;
     private final JobRepository jobRepository;
     private final UserRepository userRepository;
+    private final ResumeKeywordScoreRepository keywordScoreRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final Gson GSON = new Gson();
+    private static final Type RESULTS_TYPE = new TypeToken<Map<String, Map<String, Object>>>() {}.getType();
 
     @Autowired
-    public ResumeDataService(ResumeRepository resumeRepository, JobRepository jobRepository, UserRepository userRepository) {
+    public ResumeDataService(ResumeRepository resumeRepository, JobRepository jobRepository, UserRepository userRepository,
+                             ResumeKeywordScoreRepository keywordScoreRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.resumeRepository = resumeRepository;
         this.jobRepository = jobRepository;
         this.userRepository = userRepository;
+        this.keywordScoreRepository = keywordScoreRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -42,6 +59,7 @@ public class ResumeDataService {
      * @param userId The ID of the user who owns the resume
      * @return The saved Resume entity
      */
+    @Transactional
     public Resume saveResumeData(String resumeHash, String rawResults, Long jobId, Long userId) {
         // Parse the Python-formatted results to JSON if results are provided
         String jsonResults = null;
@@ -56,15 +74,14 @@ public class ResumeDataService {
             // Update existing resume if results are provided
             if (jsonResults != null) {
                 Resume resume = existingResume.get();
-                resume.setResults(jsonResults);
-                return resumeRepository.save(resume);
+                applyResults(resume, jsonResults);
+                return published(resumeRepository.save(resume));
             }
             return existingResume.get();
         } else {
             // Create new resume
             Resume resume = new Resume();
             resume.setResumeHash(resumeHash);
-            resume.setResults(jsonResults);
             
             // Get job and owner entities
             Job job = jobRepository.findById(jobId)
@@ -76,8 +93,58 @@ public class ResumeDataService {
             resume.setJob(job);
             resume.setOwner(owner);
             
-            return resumeRepository.save(resume);
+            Resume saved = resumeRepository.save(resume);
+            if (jsonResults == null) {
+                return saved;
+            }
+            // Score rows need the resume's id, so results are applied after the insert
+            applyResults(saved, jsonResults);
+            return published(resumeRepository.save(saved));
+        }
+    }
+
+    /**
+     * Stores JSON results on a saved resume: the results text, one {@link ResumeKeywordScore}
+     * per keyword replacing any previous ones, and the aggregate score (the mean similarity score).
+     * Must be called inside a transaction; the caller saves the resume.
+     *
+     * @param resume The resume, already persisted
+     * @param jsonResults The results as JSON, keyed by keyword
+     */
+    public void applyResults(Resume resume, String jsonResults) {
+        resume.setResults(jsonResults);
+        keywordScoreRepository.deleteByResumeId(resume.getId());
+
+        List<ResumeKeywordScore> scores = new ArrayList<>();
+        double total = 0;
+        int scored = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : parseResults(jsonResults).entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            ResumeKeywordScore score = new ResumeKeywordScore();
+            score.setResume(resume);
+            score.setKeyword(entry.getKey());
+            if (entry.getValue().get("similarity_score") instanceof Number number) {
+                score.setSimilarityScore(number.doubleValue());
+                total += number.doubleValue();
+                scored++;
+            }
+            Object ngram = entry.getValue().get("best_matching_ngram");
+            score.setBestMatchingNgram(ngram == null ? null : ngram.toString());
+            scores.add(score);
         }
+        keywordScoreRepository.saveAll(scores);
+        resume.setAggregateScore(scored == 0 ? null : total / scored);
+    }
+
+    /**
+     * Publishes {@link ResumeResultsSavedEvent} for a resume whose results were just applied.
+     * Inside a transaction, listeners see it once the transaction commits.
+     */
+    Resume published(Resume resume) {
+        eventPublisher.publishEvent(new ResumeResultsSavedEvent(resume));
+        return resume;
     }
 
     /**
@@ -121,12 +188,56 @@ public class ResumeDataService {
             return Map.of();
         }
         
+        return parseResults(resume.getResults());
+    }
+
+    /**
+     * Get the applicants of a job ranked by aggregate score, best first, followed by the
+     * applicants whose results have not arrived yet
+     *
+     * @param jobId The ID of the job
+     * @return List of resumes
+     */
+    public List<Resume> getResumesByJobRankedByScore(Long jobId) {
+        List<Resume> resumes = new ArrayList<>(resumeRepository.findScoredByJobId(jobId));
+        resumes.addAll(resumeRepository.findByJob_IdAndAggregateScoreIsNullOrderByIdAsc(jobId));
+        return resumes;
+    }
+
+    /**
+     * Loads the keyword scores of many resumes in one query, in the same shape as
+     * {@link #parseResumeResults(Resume)} and best first, without parsing any stored JSON
+     *
+     * @param resumes The resumes
+     * @return Parsed results by resume ID; resumes without scores map to an empty map
+     */
+    public Map<Long, Map<String, Map<String, Object>>> getKeywordScoresByResume(List<Resume> resumes) {
+        Map<Long, Map<String, Map<String, Object>>> results = new HashMap<>();
+        List<Long> resumeIds = new ArrayList<>();
+        for (Resume resume : resumes) {
+            results.put(resume.getId(), new LinkedHashMap<>());
+            resumeIds.add(resume.getId());
+        }
+        if (resumeIds.isEmpty()) {
+            return results;
+        }
+        for (ResumeKeywordScore score : keywordScoreRepository.findByResumeIds(resumeIds)) {
+            Map<String, Object> keywordResult = new HashMap<>();
+            keywordResult.put("similarity_score", score.getSimilarityScore());
+            keywordResult.put("best_matching_ngram", score.getBestMatchingNgram());
+            results.get(score.getResume().getId()).put(score.getKeyword(), keywordResult);
+        }
+        return results;
+    }
+
+    // Stored results are JSON; every caller reports them in the shape returned here
+    static Map<String, Map<String, Object>> parseResults(String jsonResults) {
+        if (jsonResults == null || jsonResults.isEmpty()) {
+            return Map.of();
+        }
         try {
-            // We'll use Gson to parse the stored JSON back to a Map
-            return new com.google.gson.Gson().fromJson(
-                resume.getResults(), 
-                new com.google.gson.reflect.TypeToken<Map<String, Map<String, Object>>>(){}.getType()
-            );
+            Map<String, Map<String, Object>> results = GSON.fromJson(jsonResults, RESULTS_TYPE);
+            return results == null ? Map.of() : results;
         } catch (Exception e) {
             return Map.of();
         }
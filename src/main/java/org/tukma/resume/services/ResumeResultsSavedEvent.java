@@ -0,0 +1,20 @@
+package org.tukma.resume.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.tukma.resume.models.Resume;
+
+/**
+ * Published by {@link ResumeDataService} when a resume's similarity results are stored.
+ * Carries the resume as saved, so listeners do not have to query the database again.
+ */
+@Getter
+@AllArgsConstructor
+public class ResumeResultsSavedEvent {
+
+    private final Resume resume;
+
+    public String getResumeHash() {
+        return resume.getResumeHash();
+    }
+}
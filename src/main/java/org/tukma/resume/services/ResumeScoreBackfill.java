@@ -0,0 +1,126 @@
+package org.tukma.resume.services;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tukma.config.RedisGateway;
+import org.tukma.resume.models.Resume;
+import org.tukma.resume.repositories.ResumeRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fills in keyword score rows and aggregate scores for resumes whose results were stored
+ * only as JSON. Runs once at startup, `tukma.resume.backfill.batch-size` resumes per
+ * transaction; resumes that already have scores are skipped, so it is safe to rerun.
+ *
+ * Instances starting together would race on the same resumes, so the run holds a Redis lock,
+ * renewed after every batch and expiring after `tukma.resume.backfill.lock-seconds` if its
+ * holder dies. An instance that finds the lock taken skips the backfill.
+ */
+@Component
+public class ResumeScoreBackfill {
+
+    private static final Logger logger = Logger.getLogger(ResumeScoreBackfill.class.getName());
+
+    private static final String LOCK_KEY = "resume:score-backfill:lock";
+
+    /**
+     * KEYS[1] = lock key; ARGV = holder token and new TTL in milliseconds, 0 to release.
+     * Only touches the lock while the caller still holds it. Returns 1 if it did.
+     */
+    private static final RedisScript<Long> LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "if ARGV[2] == '0' then redis.call('DEL', KEYS[1]) else redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 1", Long.class);
+
+    private final ResumeRepository resumeRepository;
+    private final ResumeDataService resumeDataService;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisGateway redis;
+    private final int batchSize;
+    private final long lockMillis;
+
+    public ResumeScoreBackfill(ResumeRepository resumeRepository, ResumeDataService resumeDataService,
+                               TransactionTemplate transactionTemplate, RedisGateway redis, Environment environment) {
+        this.resumeRepository = resumeRepository;
+        this.resumeDataService = resumeDataService;
+        this.transactionTemplate = transactionTemplate;
+        this.redis = redis;
+        this.batchSize = environment.getProperty("tukma.resume.backfill.batch-size", Integer.class, 200);
+        this.lockMillis = environment.getProperty("tukma.resume.backfill.lock-seconds", Long.class, 300L) * 1000;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redis.execute("resume.backfill.lock", connection -> connection.set(LOCK_KEY, token,
+                    Expiration.milliseconds(lockMillis), RedisStringCommands.SetOption.SET_IF_ABSENT));
+            if (!Boolean.TRUE.equals(acquired)) {
+                logger.fine("Resume score backfill is running on another instance");
+                return;
+            }
+        } catch (RuntimeException e) {
+            // Without the lock, instances could race on the same resumes; the next startup retries
+            logger.log(Level.WARNING, "Could not take the resume score backfill lock, skipping the backfill", e);
+            return;
+        }
+        try {
+            int backfilled = backfill(() -> updateLock(token, lockMillis));
+            if (backfilled > 0) {
+                logger.info("Backfilled keyword scores for " + backfilled + " resumes");
+            }
+        } catch (RuntimeException e) {
+            // Listings still work without scores; the next startup picks up where this one stopped
+            logger.log(Level.WARNING, "Resume score backfill failed", e);
+        } finally {
+            try {
+                updateLock(token, 0);
+            } catch (RuntimeException e) {
+                logger.log(Level.FINE, "Could not release the resume score backfill lock; it expires on its own", e);
+            }
+        }
+    }
+
+    /**
+     * Backfills every resume that has results but no scores.
+     *
+     * @return The number of resumes backfilled
+     */
+    public int backfill() {
+        return backfill(() -> { });
+    }
+
+    private int backfill(Runnable afterBatch) {
+        int backfilled = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = resumeRepository.findIdsWithUnscoredResults(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return backfilled;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Resume resume : resumeRepository.findAllById(ids)) {
+                    resumeDataService.applyResults(resume, resume.getResults());
+                }
+            });
+            backfilled += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            afterBatch.run();
+        }
+    }
+
+    private void updateLock(String token, long ttlMillis) {
+        redis.script("resume.backfill.lock", LOCK_SCRIPT, List.of(LOCK_KEY), token, String.valueOf(ttlMillis));
+    }
+}
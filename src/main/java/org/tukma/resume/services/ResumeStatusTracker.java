@@ -0,0 +1,208 @@
+package org.tukma.resume.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tukma.resume.models.Resume;
+import org.tukma.resume.utils.ResumeResultParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks the processing status of uploaded resumes with one poller per hash.
+ *
+ * Every client asking about the same hash shares a single poll loop against the resume service,
+ * so upstream calls grow with the number of pending resumes rather than with clients and their
+ * polling rate. The loop backs off from `tukma.resume.status.initial-delay-ms` up to
+ * `tukma.resume.status.max-delay-seconds`, fetches and stores the results once processing
+ * completes, and gives up after `tukma.resume.status.max-wait-minutes`. Results that are already
+ * stored are answered from the database, and results stored by any other path
+ * (see {@link ResumeResultsSavedEvent}) end the loop early. A loop nobody listens to is stopped
+ * after `tukma.resume.status.idle-seconds`.
+ *
+ * Terminal updates are kept for `tukma.resume.status.finished-ttl-seconds`, so polls that keep
+ * arriving after a resume finished are answered without starting a new loop. This matters for
+ * general uploads, which have no stored resume to answer from.
+ */
+@Service
+public class ResumeStatusTracker {
+
+    private static final Logger logger = Logger.getLogger(ResumeStatusTracker.class.getName());
+
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String TIMED_OUT = "TIMED_OUT";
+
+    // Bounds a one-off status request while the first upstream check is still failing
+    private static final Duration CURRENT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ResumeClientService resumeClientService;
+    private final ResumeDataService resumeDataService;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final Duration maxWait;
+    private final Duration idleGrace;
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private final Cache<String, StatusUpdate> finished;
+
+    @Getter
+    @AllArgsConstructor
+    public static class StatusUpdate {
+        private final String hash;
+        private final String status;
+        // Parsed similarity results by keyword, only set once processing has completed
+        private final Map<String, Map<String, Object>> result;
+        // No further updates follow a terminal one
+        private final boolean terminal;
+    }
+
+    private static class Watch {
+        // Completed by a save made elsewhere, e.g. through /score/{hash}
+        private final Sinks.One<StatusUpdate> saved = Sinks.one();
+        private Flux<StatusUpdate> updates;
+    }
+
+    public ResumeStatusTracker(ResumeClientService resumeClientService, ResumeDataService resumeDataService,
+                               Environment environment) {
+        this.resumeClientService = resumeClientService;
+        this.resumeDataService = resumeDataService;
+        this.initialDelay = Duration.ofMillis(
+                environment.getProperty("tukma.resume.status.initial-delay-ms", Long.class, 1000L));
+        this.maxDelay = Duration.ofSeconds(
+                environment.getProperty("tukma.resume.status.max-delay-seconds", Long.class, 30L));
+        this.maxWait = Duration.ofMinutes(
+                environment.getProperty("tukma.resume.status.max-wait-minutes", Long.class, 30L));
+        this.idleGrace = Duration.ofSeconds(
+                environment.getProperty("tukma.resume.status.idle-seconds", Long.class, 30L));
+        this.finished = CacheBuilder.newBuilder()
+                .maximumSize(environment.getProperty("tukma.resume.status.finished-cache-size", Long.class, 10_000L))
+                .expireAfterWrite(environment.getProperty("tukma.resume.status.finished-ttl-seconds", Long.class, 300L),
+                        TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Streams the status of a resume. The latest known status is replayed on subscription,
+     * then every change is emitted until a terminal update.
+     *
+     * @param hash The hash returned by the upload
+     * @return The shared status stream for this hash
+     */
+    public Flux<StatusUpdate> watch(String hash) {
+        StatusUpdate done = finished.getIfPresent(hash);
+        if (done != null) {
+            return Flux.just(done);
+        }
+        return watches.computeIfAbsent(hash, this::start).updates;
+    }
+
+    /**
+     * Returns the latest known status of a resume, checking upstream only if no poller has one yet.
+     */
+    public Mono<StatusUpdate> current(String hash) {
+        return watch(hash).next().timeout(CURRENT_TIMEOUT);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultsSaved(ResumeResultsSavedEvent event) {
+        Watch watch = watches.get(event.getResumeHash());
+        if (watch != null) {
+            watch.saved.tryEmitValue(completed(event.getResume()));
+        }
+    }
+
+    private Watch start(String hash) {
+        Watch watch = new Watch();
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        watch.updates = Flux.merge(stored(hash).switchIfEmpty(poll(hash, 0, deadline)), watch.saved.asMono())
+                .distinctUntilChanged(StatusUpdate::getStatus)
+                .takeUntil(StatusUpdate::isTerminal)
+                .doOnNext(update -> {
+                    if (update.isTerminal()) {
+                        finished.put(hash, update);
+                    }
+                })
+                .doFinally(signal -> watches.remove(hash, watch))
+                .replay(1)
+                .refCount(1, idleGrace);
+        return watch;
+    }
+
+    private Flux<StatusUpdate> stored(String hash) {
+        return Mono.fromCallable(() -> resumeDataService.getResumeByHash(hash))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(resume -> Mono.justOrEmpty(resume
+                        .filter(r -> r.getResults() != null && !r.getResults().isEmpty())
+                        .map(this::completed)))
+                .onErrorResume(e -> {
+                    logger.log(Level.WARNING, "Could not look up stored results for " + hash, e);
+                    return Mono.empty();
+                })
+                .flux();
+    }
+
+    private Flux<StatusUpdate> poll(String hash, int attempt, long deadline) {
+        Flux<StatusUpdate> next = Flux.defer(() -> System.nanoTime() >= deadline
+                ? Flux.just(new StatusUpdate(hash, TIMED_OUT, null, true))
+                : Mono.delay(backoff(attempt)).flatMapMany(tick -> poll(hash, attempt + 1, deadline)));
+
+        return resumeClientService.checkProcessingStatus(hash)
+                .flatMap(response -> {
+                    String status = response.getResult() == null
+                            ? "PROCESSING"
+                            : response.getResult().toUpperCase(Locale.ROOT);
+                    if (COMPLETED.equals(status)) {
+                        return fetchResult(hash);
+                    }
+                    return Mono.just(new StatusUpdate(hash, status, null, FAILED.equals(status)));
+                })
+                .onErrorResume(e -> {
+                    logger.log(Level.FINE, "Status check failed for " + hash + ", retrying", e);
+                    return Mono.empty();
+                })
+                .flatMapMany(update -> update.isTerminal() ? Flux.just(update) : Flux.just(update).concatWith(next))
+                .switchIfEmpty(next);
+    }
+
+    // Stores the results on the resume, if one was uploaded for a job, before reporting completion
+    private Mono<StatusUpdate> fetchResult(String hash) {
+        return resumeClientService.getSimilarityScore(hash)
+                .filter(response -> response.getResult() != null)
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    String rawResults = response.getResult().toString();
+                    Optional<Resume> resume = resumeDataService.getResumeByHash(hash);
+                    resume.ifPresent(r -> resumeDataService.saveResumeData(
+                            hash, rawResults, r.getJob().getId(), r.getOwner().getId()));
+                    // Same shape as results answered from the database
+                    return new StatusUpdate(hash, COMPLETED, ResumeResultParser.parseResults(rawResults), true);
+                });
+    }
+
+    private StatusUpdate completed(Resume resume) {
+        return new StatusUpdate(resume.getResumeHash(), COMPLETED, resumeDataService.parseResumeResults(resume), true);
+    }
+
+    // Exponential backoff with +/-20% jitter, so uploads made together do not poll in lockstep
+    private Duration backoff(int attempt) {
+        long delay = initialDelay.toMillis() << Math.min(attempt, 16);
+        delay = Math.min(delay, maxDelay.toMillis());
+        return Duration.ofMillis((long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+}
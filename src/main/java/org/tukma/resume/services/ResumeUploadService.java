@@ -0,0 +1,119 @@
+package org.tukma.resume.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.tukma.resume.dtos.ResumeUploadResponse;
+import org.tukma.resume.exceptions.ResumeUploadRejectedException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Forwards uploaded resumes to the resume service without copying them onto the heap.
+ *
+ * The multipart file is moved to a temporary file and streamed from disk in small buffers,
+ * and the returned Mono completes on a WebClient thread, so no servlet thread waits on the
+ * upstream call. Each upload is capped at `tukma.resume.upload.max-bytes`, and the bytes of
+ * all uploads in flight are capped at `tukma.resume.upload.max-in-flight-bytes`; uploads over
+ * that budget are refused with 503 instead of queueing, so a deadline spike cannot pile up
+ * unbounded work.
+ */
+@Service
+public class ResumeUploadService {
+
+    private static final Logger logger = Logger.getLogger(ResumeUploadService.class.getName());
+
+    private final ResumeClientService resumeClientService;
+    private final long maxBytes;
+    private final long maxInFlightBytes;
+    private final Duration timeout;
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    public ResumeUploadService(ResumeClientService resumeClientService, MeterRegistry meterRegistry,
+                               Environment environment) {
+        this.resumeClientService = resumeClientService;
+        this.maxBytes = environment.getProperty("tukma.resume.upload.max-bytes", Long.class, 10L * 1024 * 1024);
+        this.maxInFlightBytes = environment.getProperty("tukma.resume.upload.max-in-flight-bytes", Long.class,
+                256L * 1024 * 1024);
+        this.timeout = Duration.ofSeconds(
+                environment.getProperty("tukma.resume.upload.timeout-seconds", Long.class, 60L));
+        Gauge.builder("tukma.resume.upload.in-flight.bytes", inFlightBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Streams a resume to the resume service.
+     *
+     * @param resume   The uploaded PDF
+     * @param keywords The keywords to score the resume against
+     * @return The upload response; the temporary file and the reserved bytes are released when it terminates
+     * @throws ResumeUploadRejectedException if the file is empty, too large, or the upload budget is exhausted
+     */
+    public Mono<ResumeUploadResponse> upload(MultipartFile resume, List<String> keywords) {
+        long size = resume.getSize();
+        if (size <= 0) {
+            throw new ResumeUploadRejectedException(HttpStatus.BAD_REQUEST, "Resume file is empty");
+        }
+        if (size > maxBytes) {
+            throw new ResumeUploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Resume file exceeds the limit of " + maxBytes + " bytes");
+        }
+        reserve(size);
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("resume-", ".pdf");
+            // The servlet container already spooled the part to disk; this is a move or a file copy
+            resume.transferTo(file);
+        } catch (IOException | RuntimeException e) {
+            inFlightBytes.addAndGet(-size);
+            if (file != null) {
+                delete(file);
+            }
+            throw new IllegalStateException("Could not stage resume upload", e);
+        }
+
+        Path staged = file;
+        return resumeClientService.uploadResume(new FileSystemResource(staged), keywords)
+                .timeout(timeout)
+                .doFinally(signal -> {
+                    inFlightBytes.addAndGet(-size);
+                    delete(staged);
+                });
+    }
+
+    // Lets a single upload through when nothing else is in flight, so the budget never blocks everything
+    private void reserve(long size) {
+        while (true) {
+            long current = inFlightBytes.get();
+            if (current > 0 && current + size > maxInFlightBytes) {
+                throw new ResumeUploadRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many resume uploads in progress. Please try again shortly.");
+            }
+            if (inFlightBytes.compareAndSet(current, current + size)) {
+                return;
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not delete temporary resume file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.tukma.resume.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tukma.resume.models.Resume;
+import org.tukma.resume.repositories.ResumeRepository;
+import org.tukma.resume.utils.ResumeResultParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Refreshes the similarity scores of every stored resume from the resume microservice.
+ *
+ * Resumes that already have results are final and are reported from the database without
+ * a remote call. The rest are fetched concurrently, at most `tukma.resume.refresh.concurrency`
+ * at a time, and their results are written back in batches of `tukma.resume.refresh.batch-size`,
+ * one transaction per batch. Each saved resume publishes a {@link ResumeResultsSavedEvent} once its
+ * batch commits. Outcomes are emitted as they complete, so callers can stream progress.
+ */
+@Service
+public class SimilarityRefreshService {
+
+    private static final Logger logger = Logger.getLogger(SimilarityRefreshService.class.getName());
+
+    private static final Duration BATCH_MAX_WAIT = Duration.ofMillis(500);
+
+    private final ResumeRepository resumeRepository;
+    private final ResumeClientService resumeClientService;
+    private final ResumeDataService resumeDataService;
+    private final TransactionTemplate transactionTemplate;
+    private final int concurrency;
+    private final int batchSize;
+
+    public SimilarityRefreshService(ResumeRepository resumeRepository, ResumeClientService resumeClientService,
+                                    ResumeDataService resumeDataService, TransactionTemplate transactionTemplate,
+                                    Environment environment) {
+        this.resumeRepository = resumeRepository;
+        this.resumeClientService = resumeClientService;
+        this.resumeDataService = resumeDataService;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrency = environment.getProperty("tukma.resume.refresh.concurrency", Integer.class, 16);
+        this.batchSize = environment.getProperty("tukma.resume.refresh.batch-size", Integer.class, 50);
+    }
+
+    public enum Status {
+        STORED,     // results were already final and come from the database
+        REFRESHED,  // fetched from the microservice and saved
+        FAILED      // the microservice call failed, returned no result, or the result could not be saved
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Outcome {
+        private final Long resumeId;
+        private final String resumeHash;
+        private final Long jobId;
+        private final Object score;
+        private final Status status;
+        // Only set for refreshed outcomes, until they are saved
+        private final String jsonResults;
+    }
+
+    /**
+     * Number of resumes a refresh will report on.
+     */
+    public long countResumes() {
+        return resumeRepository.count();
+    }
+
+    /**
+     * Refreshes every resume, emitting one outcome per resume in completion order.
+     *
+     * @param force Whether to refetch resumes whose results are already stored
+     * @return The outcomes; refreshed results are saved before their outcome is emitted
+     */
+    public Flux<Outcome> refreshAll(boolean force) {
+        return Mono.fromCallable(resumeRepository::findAllWithJob)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(resume -> {
+                    if (!force && resume.getResults() != null && !resume.getResults().isEmpty()) {
+                        return Mono.just(new Outcome(resume.getId(), resume.getResumeHash(), resume.getJob().getId(),
+                                resumeDataService.parseResumeResults(resume), Status.STORED, null));
+                    }
+                    return fetch(resume);
+                }, concurrency)
+                // Flush partial batches too, so a slow tail still shows progress. Fair mode only
+                // flushes on timeout when downstream asked for a batch, so a slow client cannot overflow it
+                .bufferTimeout(batchSize, BATCH_MAX_WAIT, true)
+                .concatMap(batch -> Mono.fromRunnable(() -> save(batch))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenMany(Flux.fromIterable(batch))
+                        .onErrorResume(e -> {
+                            logger.log(Level.WARNING, "Could not save a batch of refreshed similarity scores", e);
+                            return Flux.fromIterable(batch).map(SimilarityRefreshService::unsaved);
+                        }));
+    }
+
+    private Mono<Outcome> fetch(Resume resume) {
+        Long jobId = resume.getJob().getId();
+        return resumeClientService.getSimilarityScore(resume.getResumeHash())
+                .map(response -> {
+                    if (response.getResult() == null) {
+                        return failed(resume, jobId);
+                    }
+                    String jsonResults = ResumeResultParser.pythonToJson(response.getResult().toString());
+                    // Parsed from the stored form, so refreshed scores have the same shape as stored ones
+                    return new Outcome(resume.getId(), resume.getResumeHash(), jobId,
+                            ResumeDataService.parseResults(jsonResults), Status.REFRESHED, jsonResults);
+                })
+                .defaultIfEmpty(failed(resume, jobId))
+                .onErrorResume(e -> {
+                    logger.log(Level.WARNING, "Could not refresh similarity score for resume " + resume.getId(), e);
+                    return Mono.just(failed(resume, jobId));
+                });
+    }
+
+    private static Outcome failed(Resume resume, Long jobId) {
+        return new Outcome(resume.getId(), resume.getResumeHash(), jobId, null, Status.FAILED, null);
+    }
+
+    // Refreshed results whose batch could not be saved are reported as failed
+    private static Outcome unsaved(Outcome outcome) {
+        return outcome.getStatus() != Status.REFRESHED ? outcome : new Outcome(outcome.getResumeId(),
+                outcome.getResumeHash(), outcome.getJobId(), null, Status.FAILED, null);
+    }
+
+    // One transaction and one round of batched writes for a whole batch of refreshed results
+    private void save(List<Outcome> batch) {
+        Map<Long, String> resultsById = new HashMap<>();
+        for (Outcome outcome : batch) {
+            if (outcome.getStatus() == Status.REFRESHED) {
+                resultsById.put(outcome.getResumeId(), outcome.getJsonResults());
+            }
+        }
+        if (resultsById.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Resume> resumes = resumeRepository.findAllById(new ArrayList<>(resultsById.keySet()));
+            for (Resume resume : resumes) {
+                resumeDataService.applyResults(resume, resultsById.get(resume.getId()));
+                // Delivered after the batch commits, like a single save
+                resumeDataService.published(resume);
+            }
+        });
+    }
+}
@@ -1,87 +1,460 @@
 package org.tukma.resume.utils;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
+import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
 /**
  * Utility class to parse Python-formatted resume analysis results
+ *
+ * The resume service returns the `repr` of a Python dict, e.g.
+ * `{'react': {'similarity_score': np.float64(0.52), 'best_matching_ngram': 'React and Angular'}}`.
+ * {@link #pythonToJson(String)} converts it in a single pass, writing JSON straight into a
+ * per-thread buffer: dicts, lists, tuples, quoted strings with their escapes, numbers,
+ * True/False/None, and wrapper calls such as `np.float64(...)`, which are replaced by their argument.
+ * Input the tokenizer cannot read falls back to the original regex extraction, as long as it is
+ * short enough that the regex cannot backtrack for long; longer input converts to `{}`.
  */
 public class ResumeResultParser {
 
+    private static final Logger logger = Logger.getLogger(ResumeResultParser.class.getName());
+
     private static final Pattern KEYWORD_PATTERN = Pattern.compile("'([^']+)': \\{(.+?)\\}");
     private static final Pattern SCORE_PATTERN = Pattern.compile("'similarity_score': np\\.float64\\(([0-9.]+)\\)");
     private static final Pattern NGRAM_PATTERN = Pattern.compile("'best_matching_ngram': '([^']+)'");
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Gson GSON = new Gson();
+    private static final TypeReference<Map<String, Map<String, Object>>> RESULTS_TYPE = new TypeReference<>() {};
+
+    // Buffers that grew past this are dropped instead of being kept per thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    // The lazy keyword pattern backtracks over the rest of the input for every unclosed entry
+    private static final int MAX_FALLBACK_LENGTH = 16 * 1024;
+
     /**
      * Parses a Python-formatted result string into a Java Map
-     * 
+     *
      * @param pythonResult The Python-formatted result string
      * @return Map representation of the result
      */
     public static Map<String, Map<String, Object>> parseResults(String pythonResult) {
+        try {
+            return MAPPER.readValue(pythonToJson(pythonResult), RESULTS_TYPE);
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Converts the parsed result map to JSON string
+     *
+     * @param results Parsed result map
+     * @return JSON string representation
+     */
+    public static String toJsonString(Map<String, Map<String, Object>> results) {
+        try {
+            return GSON.toJson(results);
+        } catch (Exception e) {
+            return "{}";
+        }
+    }
+
+    /**
+     * Parses a Python-formatted result string directly to JSON
+     *
+     * @param pythonResult The Python-formatted result string
+     * @return JSON string representation
+     */
+    public static String pythonToJson(String pythonResult) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            new Tokenizer(stripOuterQuotes(pythonResult.trim()), out).document();
+            return out.toString();
+        } catch (IllegalArgumentException e) {
+            if (pythonResult.length() > MAX_FALLBACK_LENGTH) {
+                logger.warning("Dropping an unreadable resume result of " + pythonResult.length()
+                        + " characters: " + e.getMessage());
+                return "{}";
+            }
+            return toJsonString(parseResultsWithRegex(pythonResult));
+        } finally {
+            if (out.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * The original regex extraction. Only reads flat `similarity_score` / `best_matching_ngram`
+     * entries without quotes or braces in their text; kept as the fallback and as the baseline
+     * for `ResumeResultParserTest` and `ResumeParserBenchmark` in the tests.
+     */
+    static Map<String, Map<String, Object>> parseResultsWithRegex(String pythonResult) {
         Map<String, Map<String, Object>> results = new HashMap<>();
-        
+
         // Remove the outer quotes and braces if present
         pythonResult = pythonResult.trim();
         if (pythonResult.startsWith("'") && pythonResult.endsWith("'")) {
             pythonResult = pythonResult.substring(1, pythonResult.length() - 1);
         }
-        
+
         // Extract each keyword section
         Matcher keywordMatcher = KEYWORD_PATTERN.matcher(pythonResult);
         while (keywordMatcher.find()) {
             String keyword = keywordMatcher.group(1);
             String keywordData = keywordMatcher.group(2);
-            
+
             Map<String, Object> keywordResults = new HashMap<>();
-            
+
             // Extract similarity score
             Matcher scoreMatcher = SCORE_PATTERN.matcher(keywordData);
             if (scoreMatcher.find()) {
                 double score = Double.parseDouble(scoreMatcher.group(1));
                 keywordResults.put("similarity_score", score);
             }
-            
+
             // Extract best matching ngram
             Matcher ngramMatcher = NGRAM_PATTERN.matcher(keywordData);
             if (ngramMatcher.find()) {
                 String ngram = ngramMatcher.group(1);
                 keywordResults.put("best_matching_ngram", ngram);
             }
-            
+
             results.put(keyword, keywordResults);
         }
-        
+
         return results;
     }
-    
-    /**
-     * Converts the parsed result map to JSON string
-     * 
-     * @param results Parsed result map
-     * @return JSON string representation
-     */
-    public static String toJsonString(Map<String, Map<String, Object>> results) {
-        try {
-            return new Gson().toJson(results);
-        } catch (Exception e) {
-            return "{}";
+
+    // The result sometimes arrives as a quoted repr: '{...}'
+    private static String stripOuterQuotes(String value) {
+        if (value.length() >= 2 && value.charAt(0) == '\'' && value.charAt(value.length() - 1) == '\''
+                && value.charAt(1) == '{') {
+            return value.substring(1, value.length() - 1);
         }
+        return value;
     }
-    
+
     /**
-     * Parses a Python-formatted result string directly to JSON
-     * 
-     * @param pythonResult The Python-formatted result string
-     * @return JSON string representation
+     * Recursive-descent reader over a Python literal that emits JSON as it goes.
+     * Throws IllegalArgumentException at the first character it cannot accept.
      */
-    public static String pythonToJson(String pythonResult) {
-        return toJsonString(parseResults(pythonResult));
+    private static final class Tokenizer {
+
+        private final String in;
+        private final StringBuilder out;
+        private int pos;
+
+        Tokenizer(String in, StringBuilder out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        void document() {
+            value();
+            skipWhitespace();
+            if (pos != in.length()) {
+                throw error("trailing input");
+            }
+        }
+
+        private void value() {
+            skipWhitespace();
+            if (pos >= in.length()) {
+                throw error("unexpected end of input");
+            }
+            char c = in.charAt(pos);
+            if (c == '{') {
+                dict();
+            } else if (c == '[') {
+                sequence('[', ']');
+            } else if (c == '(') {
+                sequence('(', ')');
+            } else if (c == '\'' || c == '"') {
+                string();
+            } else if (c == '-' || c == '+' || c == '.' || (c >= '0' && c <= '9')) {
+                number();
+            } else if (Character.isJavaIdentifierStart(c)) {
+                name();
+            } else {
+                throw error("unexpected character");
+            }
+        }
+
+        private void dict() {
+            pos++;
+            out.append('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                out.append('}');
+                return;
+            }
+            while (true) {
+                key();
+                skipWhitespace();
+                expect(':');
+                out.append(':');
+                value();
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    out.append('}');
+                    return;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '}'");
+                }
+                skipWhitespace();
+                // Python allows a trailing comma
+                if (peek() == '}') {
+                    pos++;
+                    out.append('}');
+                    return;
+                }
+                out.append(',');
+            }
+        }
+
+        // JSON keys must be strings, so numeric and constant keys are quoted
+        private void key() {
+            skipWhitespace();
+            char c = peek();
+            if (c == '\'' || c == '"') {
+                string();
+                return;
+            }
+            int start = out.length();
+            value();
+            if (out.charAt(start) == '{' || out.charAt(start) == '[') {
+                throw error("unsupported dict key");
+            }
+            out.insert(start, '"').append('"');
+        }
+
+        private void sequence(char open, char close) {
+            pos++;
+            out.append('[');
+            skipWhitespace();
+            if (peek() == close) {
+                pos++;
+                out.append(']');
+                return;
+            }
+            while (true) {
+                value();
+                skipWhitespace();
+                char c = next();
+                if (c == close) {
+                    out.append(']');
+                    return;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '" + close + "'");
+                }
+                skipWhitespace();
+                if (peek() == close) {
+                    pos++;
+                    out.append(']');
+                    return;
+                }
+                out.append(',');
+            }
+        }
+
+        private void string() {
+            char quote = in.charAt(pos++);
+            out.append('"');
+            while (true) {
+                if (pos >= in.length()) {
+                    throw error("unterminated string");
+                }
+                char c = in.charAt(pos++);
+                if (c == quote) {
+                    out.append('"');
+                    return;
+                }
+                if (c == '\\') {
+                    escape();
+                } else {
+                    appendJsonChar(c);
+                }
+            }
+        }
+
+        private void escape() {
+            if (pos >= in.length()) {
+                throw error("unterminated escape");
+            }
+            char c = in.charAt(pos++);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\'' -> out.append('\'');
+                case '"' -> out.append("\\\"");
+                case 'n' -> out.append("\\n");
+                case 'r' -> out.append("\\r");
+                case 't' -> out.append("\\t");
+                case 'b' -> out.append("\\b");
+                case 'f' -> out.append("\\f");
+                case 'a' -> appendJsonChar('\u0007');
+                case 'v' -> appendJsonChar('\u000B');
+                case '\n' -> { } // line continuation
+                case 'x' -> appendCodePoint(hex(2));
+                case 'u' -> appendCodePoint(hex(4));
+                case 'U' -> appendCodePoint(hex(8));
+                default -> {
+                    if (c >= '0' && c <= '7') {
+                        int value = c - '0';
+                        for (int i = 0; i < 2 && pos < in.length() && in.charAt(pos) >= '0' && in.charAt(pos) <= '7'; i++) {
+                            value = value * 8 + (in.charAt(pos++) - '0');
+                        }
+                        appendCodePoint(value);
+                    } else {
+                        // Python keeps unknown escapes as written
+                        out.append("\\\\");
+                        appendJsonChar(c);
+                    }
+                }
+            }
+        }
+
+        private int hex(int digits) {
+            if (pos + digits > in.length()) {
+                throw error("truncated escape");
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(in.charAt(pos++), 16);
+                if (digit < 0) {
+                    throw error("invalid hex escape");
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        private void appendCodePoint(int codePoint) {
+            if (!Character.isValidCodePoint(codePoint)) {
+                throw error("invalid code point");
+            }
+            if (Character.isBmpCodePoint(codePoint)) {
+                appendJsonChar((char) codePoint);
+            } else {
+                out.appendCodePoint(codePoint);
+            }
+        }
+
+        private void appendJsonChar(char c) {
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+
+        // Integers are copied; floats are written the way Double.toString prints them, as before
+        private void number() {
+            char first = in.charAt(pos);
+            if ((first == '-' || first == '+') && pos + 1 < in.length() && Character.isLetter(in.charAt(pos + 1))) {
+                // -inf and +inf; JSON has no infinities either way
+                pos++;
+                name();
+                return;
+            }
+            int start = pos;
+            boolean integral = true;
+            while (pos < in.length()) {
+                char c = in.charAt(pos);
+                if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '_') {
+                    pos++;
+                } else if (c == '.' || c == 'e' || c == 'E') {
+                    integral = false;
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            String text = in.substring(start, pos).replace("_", "");
+            try {
+                if (integral) {
+                    out.append(Long.parseLong(text));
+                } else {
+                    appendDouble(Double.parseDouble(text));
+                }
+            } catch (NumberFormatException e) {
+                throw error("invalid number");
+            }
+        }
+
+        private void appendDouble(double value) {
+            if (Double.isFinite(value)) {
+                out.append(value);
+            } else {
+                out.append("null");
+            }
+        }
+
+        // Constants, or a call such as np.float64(0.5) that stands for its single argument
+        private void name() {
+            int start = pos;
+            while (pos < in.length()
+                    && (Character.isJavaIdentifierPart(in.charAt(pos)) || in.charAt(pos) == '.')) {
+                pos++;
+            }
+            String name = in.substring(start, pos);
+            skipWhitespace();
+            if (peek() == '(') {
+                pos++;
+                value();
+                skipWhitespace();
+                expect(')');
+                return;
+            }
+            switch (name) {
+                case "True" -> out.append("true");
+                case "False" -> out.append("false");
+                case "None", "nan", "inf" -> out.append("null");
+                default -> throw error("unknown name " + name);
+            }
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw error("expected '" + c + "'");
+            }
+        }
+
+        private char next() {
+            if (pos >= in.length()) {
+                throw error("unexpected end of input");
+            }
+            return in.charAt(pos++);
+        }
+
+        private char peek() {
+            return pos < in.length() ? in.charAt(pos) : '\0';
+        }
+
+        private void skipWhitespace() {
+            while (pos < in.length() && Character.isWhitespace(in.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos);
+        }
     }
 }
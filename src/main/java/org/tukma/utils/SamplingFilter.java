@@ -0,0 +1,77 @@
+package org.tukma.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that keeps one in N events below WARN for chosen logger categories.
+ *
+ * Configured in logback-spring.xml with a comma-separated list of `category=N` pairs, e.g.
+ * `org.tukma.config=100,org.tukma.interviewer=10`. The longest matching category wins.
+ * Warnings and errors always pass, as do events from categories that are not listed.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    private String rates = "";
+    private String[] categories = new String[0];
+    private long[] everyN = new long[0];
+    private AtomicLong[] counters = new AtomicLong[0];
+
+    public void setRates(String rates) {
+        this.rates = rates == null ? "" : rates;
+    }
+
+    @Override
+    public void start() {
+        List<String> names = new ArrayList<>();
+        List<Long> intervals = new ArrayList<>();
+        for (String entry : rates.split(",")) {
+            String trimmed = entry.trim();
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                long n = Long.parseLong(trimmed.substring(separator + 1).trim());
+                if (n > 1) {
+                    names.add(trimmed.substring(0, separator).trim());
+                    intervals.add(n);
+                }
+            } catch (NumberFormatException e) {
+                addWarn("Ignoring sampling rate '" + trimmed + "'");
+            }
+        }
+        categories = names.toArray(new String[0]);
+        everyN = intervals.stream().mapToLong(Long::longValue).toArray();
+        counters = new AtomicLong[categories.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new AtomicLong();
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        String loggerName = event.getLoggerName();
+        int match = -1;
+        for (int i = 0; i < categories.length; i++) {
+            if (loggerName.startsWith(categories[i])
+                    && (match < 0 || categories[i].length() > categories[match].length())) {
+                match = i;
+            }
+        }
+        if (match < 0) {
+            return FilterReply.NEUTRAL;
+        }
+        return counters[match].getAndIncrement() % everyN[match] == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
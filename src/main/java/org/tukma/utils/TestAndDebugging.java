@@ -9,8 +9,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tukma.interviewer.AudioFormat;
 import org.tukma.interviewer.Interviewer;
 import org.tukma.interviewer.WhisperClient;
+import org.tukma.interviewer.replay.InterviewRecorder;
+import org.tukma.interviewer.replay.SessionRecorder;
 
 import java.io.IOException;
 import java.util.*;
@@ -25,15 +28,18 @@ public class TestAndDebugging {
     private final ResourceLoader resourceLoader;
     private final WhisperClient whisperClient;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final InterviewRecorder interviewRecorder;
     private static final String REDIS_KEY_PREFIX = "interview:";
     private static final long INTERVIEW_TIMEOUT = 3600; // 1 hour in seconds
 
     public TestAndDebugging(Environment environment, ResourceLoader resourceLoader,
-                            WhisperClient whisperClient, RedisTemplate<String, Object> redisTemplate) {
+                            WhisperClient whisperClient, RedisTemplate<String, Object> redisTemplate,
+                            InterviewRecorder interviewRecorder) {
         this.environment = environment;
         this.resourceLoader = resourceLoader;
         this.whisperClient = whisperClient;
         this.redisTemplate = redisTemplate;
+        this.interviewRecorder = interviewRecorder;
     }
 
     private String getUserKey(Authentication auth) {
@@ -57,6 +63,10 @@ public class TestAndDebugging {
             String company = (String) payload.get("company");
             String role = (String) payload.get("role");
             List<String> technicalQuestions = (List<String>) payload.get("technicalQuestions");
+            // SSE is a text channel, so audio stays base64 here; MP3 unless the client can play smaller formats
+            AudioFormat audioFormat = payload.get("audioFormats") instanceof List<?> offered
+                    ? AudioFormat.negotiate(offered)
+                    : AudioFormat.MP3;
 
             if (company == null || role == null || technicalQuestions == null || technicalQuestions.isEmpty()) {
                 emitter.send(SseEmitter.event()
@@ -68,19 +78,33 @@ public class TestAndDebugging {
 
             // Create a new interviewer
             Interviewer interviewer = new Interviewer(environment);
+            String userKey = getUserKey(auth);
+            SessionRecorder recorder = interviewRecorder.begin(userKey, Map.of(
+                    "company", company,
+                    "role", role,
+                    "technicalQuestions", technicalQuestions,
+                    "audioFormat", audioFormat.getValue()
+            ));
+            if (recorder != null) {
+                recorder.inbound(Map.of("type", "start"));
+            }
 
             CompletableFuture.supplyAsync(() -> {
                         try {
+                            long llmStartedAt = recorder != null ? recorder.now() : 0;
                             String response = interviewer.startInterview(company, role, technicalQuestions);
+                            if (recorder != null) {
+                                recorder.llm(response, llmStartedAt);
+                            }
 
                             // Store interview state in Redis
                             InterviewState state = new InterviewState(
                                     company,
                                     role,
                                     technicalQuestions,
-                                    response // This is our conversation history
+                                    response, // This is our conversation history
+                                    audioFormat.getValue()
                             );
-                            String userKey = getUserKey(auth);
                             redisTemplate.opsForValue().set(userKey, state, INTERVIEW_TIMEOUT, TimeUnit.SECONDS);
 
                             return response;
@@ -91,7 +115,7 @@ public class TestAndDebugging {
                     .thenApply(this::extractMessages)
                     .thenAccept(messages -> {
                         try {
-                            processAndStreamResponses(messages, emitter);
+                            processAndStreamResponses(messages, emitter, audioFormat, userKey);
                         } catch (IOException e) {
                             emitter.completeWithError(e);
                         }
@@ -139,26 +163,40 @@ public class TestAndDebugging {
             }
 
             InterviewState state = (InterviewState) stateObj;
+            AudioFormat audioFormat = AudioFormat.fromValue(state.getAudioFormat());
+            SessionRecorder recorder = interviewRecorder.get(userKey);
+            if (recorder != null) {
+                recorder.inbound(Map.of("type", "ask", "response", question));
+            }
 
             // Recreate interviewer with saved state
             Interviewer interviewer = new Interviewer(environment);
-            interviewer.startInterview(
+            long restartStartedAt = recorder != null ? recorder.now() : 0;
+            String restartResponse = interviewer.startInterview(
                     state.getCompany(),
                     state.getRole(),
                     state.getTechnicalQuestions()
             );
+            if (recorder != null) {
+                recorder.llm(restartResponse, restartStartedAt);
+            }
 
             CompletableFuture.supplyAsync(() -> {
                         try {
                             // Get the response
+                            long llmStartedAt = recorder != null ? recorder.now() : 0;
                             String response = interviewer.askQuestion(question);
+                            if (recorder != null) {
+                                recorder.llm(response, llmStartedAt);
+                            }
 
                             // Update state in Redis
                             InterviewState newState = new InterviewState(
                                     state.getCompany(),
                                     state.getRole(),
                                     state.getTechnicalQuestions(),
-                                    response
+                                    response,
+                                    audioFormat.getValue()
                             );
                             redisTemplate.opsForValue().set(userKey, newState, INTERVIEW_TIMEOUT, TimeUnit.SECONDS);
 
@@ -170,7 +208,7 @@ public class TestAndDebugging {
                     .thenApply(this::extractMessages)
                     .thenAccept(messages -> {
                         try {
-                            processAndStreamResponses(messages, emitter);
+                            processAndStreamResponses(messages, emitter, audioFormat, userKey);
                         } catch (IOException e) {
                             emitter.completeWithError(e);
                         }
@@ -191,20 +229,29 @@ public class TestAndDebugging {
 
     // ... rest of the methods remain the same ...
 
-    private void processAndStreamResponses(List<String> messages, SseEmitter emitter) throws IOException {
+    private void processAndStreamResponses(List<String> messages, SseEmitter emitter, AudioFormat audioFormat,
+                                           String userKey) throws IOException {
         List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        SessionRecorder recorder = interviewRecorder.get(userKey);
 
         for (int i = 0; i < messages.size(); i++) {
             final int order = i;
             String message = messages.get(i);
+            long ttsStartedAt = recorder != null ? recorder.now() : 0;
 
-            CompletableFuture<Void> task = whisperClient.generateSpeech(message)
+            CompletableFuture<Void> task = whisperClient.generateSpeech(message, audioFormat)
                     .thenAccept(audioData -> {
                         Map<String, Object> response = Map.of(
                                 "order", order,
                                 "message", message,
+                                "format", audioFormat.getValue(),
                                 "audioBase64", encodeToBase64(audioData)
                         );
+                        if (recorder != null) {
+                            recorder.tts(message, audioFormat, audioData, ttsStartedAt);
+                            recorder.outbound(Map.of("order", order, "message", message,
+                                    "format", audioFormat.getValue(), "audioBytes", audioData.length));
+                        }
                         try {
                             emitter.send(SseEmitter.event()
                                     .data(response)
@@ -0,0 +1,99 @@
+package org.tukma.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.filter.RequestContextFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one pass through {@link JwtAuthenticationFilter#doFilterInternal} for an authenticated
+ * route, with the verified-claims cache hit and missed.
+ *
+ * The cached case cycles through a small set of tokens, which approximates logged-in users polling
+ * the API. The uncached case cycles through four times as many tokens as the claims cache holds,
+ * so every request verifies the signature and then inserts into the cache, as a cold token would.
+ *
+ * Run after `mvn test-compile` with
+ * `java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main JwtFilterBenchmark`.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        @Param({"500"})
+        public int cachedTokens;
+
+        // The claims cache keeps 50,000 entries
+        @Param({"200000"})
+        public int uncachedTokens;
+
+        private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/jobs/get-jobs-owner");
+        private final MockHttpServletResponse response = new MockHttpServletResponse();
+        private final FilterChain chain = (req, res) -> { };
+        private JwtAuthenticationFilter filter;
+        private String[] cached;
+        private String[] uncached;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            UserDetails user = User.withUsername("user@tukma.work").password("unused").roles("USER").build();
+            filter = new JwtAuthenticationFilter(null, username -> user, new RequestContextFilter());
+            cached = tokens(cachedTokens);
+            uncached = tokens(uncachedTokens);
+        }
+
+        private static String[] tokens(int count) {
+            String[] tokens = new String[count];
+            for (int i = 0; i < count; i++) {
+                JwtCompilationUnit.TransientJwt jwt = JwtCompilationUnit.startTransientState();
+                jwt.addUsername("user" + i + "@tukma.work");
+                tokens[i] = jwt.toString();
+            }
+            return tokens;
+        }
+
+        private int filter(String[] tokens) throws ServletException, IOException {
+            next = next + 1 < tokens.length ? next + 1 : 0;
+            request.setCookies(new Cookie("jwt", tokens[next]));
+            filter.doFilterInternal(request, response, chain);
+            SecurityContextHolder.clearContext();
+            return response.getStatus();
+        }
+    }
+
+    @Benchmark
+    public int cached(Requests requests) throws ServletException, IOException {
+        return requests.filter(requests.cached);
+    }
+
+    @Benchmark
+    public int uncached(Requests requests) throws ServletException, IOException {
+        return requests.filter(requests.uncached);
+    }
+}
@@ -0,0 +1,64 @@
+package org.tukma.jobs.services;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessKeyAllocatorTest {
+
+    private static final HashFunction ROUND_FUNCTION = Hashing.hmacSha256("test-secret".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void permutesSmallDomainsBijectively() {
+        // Same construction as the 62^7 keyspace, small enough to check every value
+        assertBijection(new AccessKeyAllocator.Permutation(ROUND_FUNCTION, 6, 62 * 62), 62 * 62);
+        // Just over a quarter of the 2^12 block, so most values cycle-walk several times
+        assertBijection(new AccessKeyAllocator.Permutation(ROUND_FUNCTION, 6, 1100), 1100);
+    }
+
+    @Test
+    void invertsTheFullKeyspacePermutation() {
+        AccessKeyAllocator.Permutation permutation = new AccessKeyAllocator.Permutation(
+                ROUND_FUNCTION, AccessKeyAllocator.HALF_BITS, AccessKeyAllocator.KEYSPACE);
+        Random random = new Random(42);
+        Set<Long> outputs = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Both random values and a run of consecutive sequence numbers, as handed out in blocks
+            long value = i < 10_000 ? Math.floorMod(random.nextLong(), AccessKeyAllocator.KEYSPACE) : i;
+            long permuted = permutation.apply(value);
+            assertTrue(permuted >= 0 && permuted < AccessKeyAllocator.KEYSPACE);
+            assertEquals(value, permutation.invert(permuted));
+            outputs.add(permuted);
+        }
+        assertEquals(20_000, outputs.size());
+    }
+
+    @Test
+    void formatsTheKeyspaceEdges() {
+        assertEquals("AAA-AAAA", AccessKeyAllocator.format(0));
+        assertEquals("AAA-AAAB", AccessKeyAllocator.format(1));
+        assertEquals("999-9999", AccessKeyAllocator.format(AccessKeyAllocator.KEYSPACE - 1));
+    }
+
+    private static void assertBijection(AccessKeyAllocator.Permutation permutation, int domain) {
+        BitSet seen = new BitSet(domain);
+        for (int value = 0; value < domain; value++) {
+            long permuted = permutation.apply(value);
+            assertTrue(permuted >= 0 && permuted < domain, "out of range: " + permuted);
+            assertFalse(seen.get((int) permuted), "collision at " + permuted);
+            seen.set((int) permuted);
+            assertEquals(value, permutation.invert(permuted));
+        }
+        assertEquals(domain, seen.cardinality());
+    }
+}
@@ -0,0 +1,149 @@
+package org.tukma.jobs.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.tukma.config.CacheInvalidationBus;
+import org.tukma.jobs.models.Job;
+import org.tukma.jobs.repositories.JobRepository;
+import org.tukma.jobs.repositories.KeywordRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class JobAutocompleteTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final KeywordRepository keywordRepository = mock(KeywordRepository.class);
+    private final JobChangeFeed changeFeed = new JobChangeFeed(jobRepository, keywordRepository,
+            mock(CacheInvalidationBus.class));
+
+    @Test
+    void findsTitlesByPrefixAcrossSplitEdges() {
+        JobAutocomplete autocomplete = loaded(50_000);
+        save(autocomplete, 1L, "Java Developer", UPDATED);
+        save(autocomplete, 2L, "JavaScript Engineer", UPDATED);
+        save(autocomplete, 3L, "Jakarta Admin", UPDATED);
+
+        assertEquals(List.of("Jakarta Admin", "Java Developer", "JavaScript Engineer"), texts(autocomplete, "ja"));
+        assertEquals(List.of("Java Developer", "JavaScript Engineer"), texts(autocomplete, "java"));
+        assertEquals(List.of("JavaScript Engineer"), texts(autocomplete, "JAVAS"));
+        assertEquals(List.of("Java Developer"), texts(autocomplete, "java "));
+        assertEquals(List.of("Java Developer"), texts(autocomplete, "dev"));
+        assertTrue(texts(autocomplete, "javax").isEmpty());
+        assertTrue(texts(autocomplete, "python").isEmpty());
+    }
+
+    @Test
+    void mergesNodesBackAfterRemovals() {
+        JobAutocomplete autocomplete = loaded(50_000);
+        save(autocomplete, 1L, "Java Developer", UPDATED);
+        save(autocomplete, 2L, "JavaScript Engineer", UPDATED);
+        autocomplete.onJobChanged(JobChangedEvent.deleted(2L));
+
+        assertTrue(texts(autocomplete, "javas").isEmpty());
+        assertEquals(List.of("Java Developer"), texts(autocomplete, "java d"));
+
+        // Splits the merged edge again, once at "jav" and once at "java"
+        save(autocomplete, 3L, "Javelin Coach", UPDATED);
+        autocomplete.onJobChanged(new JobChangedEvent(4L, job(4L, "Backend Engineer", UPDATED), List.of("Java")));
+
+        assertEquals(List.of("Java", "Java Developer", "Javelin Coach"), texts(autocomplete, "jav"));
+        assertEquals(List.of("Java", "Java Developer"), texts(autocomplete, "java"));
+
+        autocomplete.onJobChanged(JobChangedEvent.deleted(4L));
+        autocomplete.onJobChanged(JobChangedEvent.deleted(3L));
+
+        assertEquals(List.of("Java Developer"), texts(autocomplete, "jav"));
+        assertEquals(List.of("Java Developer"), texts(autocomplete, "java developer"));
+        assertTrue(texts(autocomplete, "javel").isEmpty());
+    }
+
+    @Test
+    void refillsTheTopSuggestionsWhenOneIsRemovedOrDrops() {
+        JobAutocomplete autocomplete = loaded(50_000);
+        // Older jobs weigh less, so "Role 00" ranks first and "Role 11" last
+        for (int i = 0; i < 12; i++) {
+            save(autocomplete, (long) i, String.format("Role %02d", i), UPDATED.minusDays(i));
+        }
+        assertEquals(roles(0, 10), texts(autocomplete, "role"));
+
+        autocomplete.onJobChanged(JobChangedEvent.deleted(0L));
+        assertEquals(roles(1, 11), texts(autocomplete, "role"));
+
+        // "Role 01" is republished with an older date, so its weight drops below the rest
+        save(autocomplete, 1L, "Role 01", UPDATED.minusDays(30));
+        assertEquals(roles(2, 12), texts(autocomplete, "role"));
+        assertEquals(List.of("Role 01"), texts(autocomplete, "role 01"));
+    }
+
+    @Test
+    void countsTheJobsSharingASuggestion() {
+        JobAutocomplete autocomplete = loaded(50_000);
+        autocomplete.onJobChanged(new JobChangedEvent(1L, job(1L, "Android Developer", UPDATED), List.of("Kotlin")));
+        autocomplete.onJobChanged(new JobChangedEvent(2L, job(2L, "Backend Developer", UPDATED), List.of("Kotlin")));
+        autocomplete.onJobChanged(new JobChangedEvent(3L, job(3L, "Data Engineer", UPDATED), List.of("Kafka")));
+
+        assertEquals(List.of("Kotlin", "Kafka"), texts(autocomplete, "k"));
+        assertEquals(2, autocomplete.complete("kot", 10).get(0).getJobCount());
+
+        // Kotlin loses half its weight and now ties with Kafka, which sorts first
+        autocomplete.onJobChanged(JobChangedEvent.deleted(1L));
+        assertEquals(List.of("Kafka", "Kotlin"), texts(autocomplete, "k"));
+        assertEquals(1, autocomplete.complete("kot", 10).get(0).getJobCount());
+        assertTrue(texts(autocomplete, "android").isEmpty());
+    }
+
+    @Test
+    void skipsNewSuggestionsWhileFull() {
+        JobAutocomplete autocomplete = loaded(3);
+        autocomplete.onJobChanged(new JobChangedEvent(1L, job(1L, "Data Engineer", UPDATED),
+                List.of("Python", "Spark", "Airflow")));
+
+        assertEquals(List.of("Data Engineer"), texts(autocomplete, "data"));
+        assertEquals(List.of("Python"), texts(autocomplete, "py"));
+        assertEquals(List.of("Spark"), texts(autocomplete, "sp"));
+        assertTrue(texts(autocomplete, "air").isEmpty());
+
+        // Removing the job frees room for the next one
+        autocomplete.onJobChanged(JobChangedEvent.deleted(1L));
+        save(autocomplete, 2L, "Airflow Operator", UPDATED);
+        assertEquals(List.of("Airflow Operator"), texts(autocomplete, "air"));
+    }
+
+    private JobAutocomplete loaded(int maxSuggestions) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("tukma.jobs.autocomplete.max-suggestions", String.valueOf(maxSuggestions));
+        JobAutocomplete autocomplete = new JobAutocomplete(jobRepository, keywordRepository, changeFeed, environment);
+        autocomplete.reload();
+        return autocomplete;
+    }
+
+    private static void save(JobAutocomplete autocomplete, Long id, String title, LocalDateTime updatedAt) {
+        autocomplete.onJobChanged(new JobChangedEvent(id, job(id, title, updatedAt), List.of()));
+    }
+
+    private static Job job(Long id, String title, LocalDateTime updatedAt) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle(title);
+        job.setUpdatedAt(updatedAt);
+        return job;
+    }
+
+    private static List<String> texts(JobAutocomplete autocomplete, String prefix) {
+        return autocomplete.complete(prefix, JobAutocomplete.MAX_LIMIT).stream()
+                .map(JobAutocomplete.Completion::getText)
+                .toList();
+    }
+
+    private static List<String> roles(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> String.format("Role %02d", i)).toList();
+    }
+}
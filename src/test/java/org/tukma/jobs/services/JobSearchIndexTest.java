@@ -0,0 +1,109 @@
+package org.tukma.jobs.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.tukma.config.CacheInvalidationBus;
+import org.tukma.jobs.models.Job;
+import org.tukma.jobs.repositories.JobRepository;
+import org.tukma.jobs.repositories.KeywordRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobSearchIndexTest {
+
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final KeywordRepository keywordRepository = mock(KeywordRepository.class);
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private final JobChangeFeed changeFeed = new JobChangeFeed(jobRepository, keywordRepository, invalidationBus);
+    private final JobSearchIndex index = new JobSearchIndex(jobRepository, keywordRepository, changeFeed);
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        load(job(1L, "Backend Engineer", "Services written in Java"),
+                job(2L, "Java Developer", "Build backend services"),
+                job(3L, "Graphic Designer", "Design brand assets"));
+
+        JobSearchIndex.SearchResult result = index.search("java", 0, 10);
+
+        assertEquals(List.of(2L, 1L), ids(result));
+        assertEquals(1.0, result.getHits().get(0).getScore(), 1e-6);
+        assertTrue(result.getHits().get(1).getScore() < 1.0);
+    }
+
+    @Test
+    void ranksRareTermsAboveCommonOnes() {
+        load(job(1L, "Engineer", "java"),
+                job(2L, "Engineer", "java"),
+                job(3L, "Engineer", "java"),
+                job(4L, "Engineer", "kotlin"));
+
+        assertEquals(4L, ids(index.search("java kotlin", 0, 10)).get(0));
+    }
+
+    @Test
+    void ranksShorterDocumentsAboveLongerOnesForTheSameMatch() {
+        load(job(1L, "Senior Java Platform Reliability Engineer", "On call rotation"),
+                job(2L, "Java Engineer", "On call rotation"));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("java", 0, 10)));
+    }
+
+    @Test
+    void appliesChangesCommittedWhileLoading() {
+        Job created = job(2L, "Kotlin Developer", "Android apps");
+        when(jobRepository.findAllWithOwner()).thenAnswer(invocation -> {
+            // Commits after the jobs were read but before the index is built
+            changeFeed.onJobChanged(new JobChangedEvent(2L, created, List.of()));
+            return List.of(job(1L, "Java Developer", "Backend services"));
+        });
+        index.reload();
+
+        assertEquals(List.of(2L), ids(index.search("kotlin", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("java", 0, 10)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reloadsJobsChangedOnAnotherInstance() {
+        load(job(1L, "Java Developer", "Backend services"), job(2L, "Kotlin Developer", "Android apps"));
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).register(eq("jobs"), listener.capture(), eq(false));
+
+        when(jobRepository.findWithOwnerById(1L)).thenReturn(Optional.of(job(1L, "Rust Developer", "Backend services")));
+        listener.getValue().accept("another-instance:1");
+        when(jobRepository.findWithOwnerById(2L)).thenReturn(Optional.empty());
+        listener.getValue().accept("another-instance:2");
+
+        assertEquals(List.of(1L), ids(index.search("rust", 0, 10)));
+        assertTrue(ids(index.search("java", 0, 10)).isEmpty());
+        assertTrue(ids(index.search("kotlin", 0, 10)).isEmpty());
+    }
+
+    private void load(Job... jobs) {
+        when(jobRepository.findAllWithOwner()).thenReturn(List.of(jobs));
+        index.reload();
+    }
+
+    private static Job job(Long id, String title, String description) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle(title);
+        job.setDescription(description);
+        job.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+        return job;
+    }
+
+    private static List<Long> ids(JobSearchIndex.SearchResult result) {
+        return result.getHits().stream().map(hit -> hit.getJob().getId()).toList();
+    }
+}
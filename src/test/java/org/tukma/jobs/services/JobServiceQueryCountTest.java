@@ -0,0 +1,104 @@
+package org.tukma.jobs.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.tukma.auth.models.UserEntity;
+import org.tukma.jobs.dtos.PagedJobsResponse;
+import org.tukma.jobs.models.Job;
+import org.tukma.jobs.models.Keyword;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JobService.class)
+class JobServiceQueryCountTest {
+
+    // The page of jobs, their owner, the total count and the page's keywords
+    private static final long STATEMENTS_PER_PAGE = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobService jobService;
+
+    @MockitoBean
+    private JobSearchIndex jobSearchIndex;
+
+    @MockitoBean
+    private AccessKeyAllocator accessKeyAllocator;
+
+    private UserEntity owner;
+
+    @BeforeEach
+    void persistJobs() {
+        owner = new UserEntity();
+        owner.setUsername("owner@tukma.work");
+        entityManager.persist(owner);
+        // More jobs than the largest page, so no page is the last one
+        for (int i = 0; i < 60; i++) {
+            persistJob(owner, i, "java", "spring", "sql");
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void loadsAnOwnersPageInTheSameStatementsRegardlessOfSize() {
+        assertStatementsPerPage(() -> jobService.getPagedJobsWithKeywords(owner, 0, 1), 1);
+        assertStatementsPerPage(() -> jobService.getPagedJobsWithKeywords(owner, 0, 50), 50);
+    }
+
+    @Test
+    void loadsAnApplicantsPageInTheSameStatementsRegardlessOfSize() {
+        assertStatementsPerPage(() -> jobService.getPagedJobsForApplicants(0, 1), 1);
+        assertStatementsPerPage(() -> jobService.getPagedJobsForApplicants(0, 50), 50);
+    }
+
+    private void assertStatementsPerPage(Supplier<PagedJobsResponse> page, int size) {
+        // Nothing is served from the persistence context
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PagedJobsResponse response = page.get();
+
+        assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+        assertEquals(size, response.getJobs().size());
+        assertEquals(60, response.getPagination().getTotalElements());
+        for (Map<String, Object> job : response.getJobs()) {
+            assertEquals(Set.of("java", "spring", "sql"), Set.copyOf((List<?>) job.get("keywords")));
+        }
+    }
+
+    private void persistJob(UserEntity owner, int index, String... keywords) {
+        Job job = new Job();
+        job.setOwner(owner);
+        job.setTitle("Job " + index);
+        job.setDescription("Description " + index);
+        job.setAddress("Cebu City");
+        job.setAccessKey("key-" + index);
+        entityManager.persist(job);
+        for (String name : keywords) {
+            Keyword keyword = new Keyword();
+            keyword.setKeywordName(name);
+            keyword.setKeywordOwner(job);
+            entityManager.persist(keyword);
+        }
+    }
+}
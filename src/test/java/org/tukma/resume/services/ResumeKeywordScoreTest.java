@@ -0,0 +1,192 @@
+package org.tukma.resume.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.tukma.auth.models.UserEntity;
+import org.tukma.config.RedisGateway;
+import org.tukma.jobs.models.Job;
+import org.tukma.resume.models.Resume;
+import org.tukma.resume.models.ResumeKeywordScore;
+import org.tukma.resume.repositories.ResumeKeywordScoreRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({ResumeDataService.class, ResumeScoreBackfill.class})
+class ResumeKeywordScoreTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ResumeDataService resumeDataService;
+
+    @Autowired
+    private ResumeScoreBackfill backfill;
+
+    @Autowired
+    private ResumeKeywordScoreRepository keywordScoreRepository;
+
+    @MockitoBean
+    private RedisGateway redis;
+
+    private UserEntity applicant;
+    private Job job;
+
+    @BeforeEach
+    void persistJob() {
+        UserEntity recruiter = user("recruiter@tukma.work");
+        applicant = user("applicant@tukma.work");
+        job = new Job();
+        job.setOwner(recruiter);
+        job.setTitle("Java Developer");
+        job.setDescription("Backend services");
+        job.setAddress("Cebu City");
+        job.setAccessKey("key-1");
+        entityManager.persist(job);
+    }
+
+    @Test
+    void storesOneScorePerKeywordAndTheirMean() {
+        Resume resume = resume("a", null);
+
+        resumeDataService.applyResults(resume, results("java", 0.8, "spring", 0.4));
+        reload();
+
+        assertEquals(0.6, entityManager.find(Resume.class, resume.getId()).getAggregateScore(), 1e-9);
+        assertEquals(List.of("java", "spring"), keywords(resume));
+    }
+
+    @Test
+    void replacesTheScoresWhenResultsAreAppliedAgain() {
+        Resume resume = resume("a", null);
+        resumeDataService.applyResults(resume, results("java", 0.8, "spring", 0.4));
+        reload();
+
+        Resume stored = entityManager.find(Resume.class, resume.getId());
+        resumeDataService.applyResults(stored, results("spring", 0.9, "sql", 0.3));
+        reload();
+
+        assertEquals(0.6, entityManager.find(Resume.class, resume.getId()).getAggregateScore(), 1e-9);
+        assertEquals(List.of("spring", "sql"), keywords(resume));
+        assertEquals(0.9, resumeDataService.getKeywordScoresByResume(List.of(stored))
+                .get(stored.getId()).get("spring").get("similarity_score"));
+    }
+
+    @Test
+    void listsKeywordScoresBestFirstWithUnscoredKeywordsLast() {
+        Resume resume = resume("a", null);
+        resumeDataService.applyResults(resume,
+                "{\"react\":{\"best_matching_ngram\":\"React\"},\"java\":{\"similarity_score\":0.3},"
+                        + "\"spring\":{\"similarity_score\":0.7}}");
+        reload();
+
+        Map<String, Map<String, Object>> scores = resumeDataService.getKeywordScoresByResume(List.of(resume))
+                .get(resume.getId());
+
+        assertEquals(List.of("spring", "java", "react"), new ArrayList<>(scores.keySet()));
+        assertNull(scores.get("react").get("similarity_score"));
+        assertEquals(0.5, entityManager.find(Resume.class, resume.getId()).getAggregateScore(), 1e-9);
+    }
+
+    @Test
+    void ranksApplicantsBestFirstThenUnscoredInUploadOrder() {
+        Resume middle = resume("middle", null);
+        Resume unscoredFirst = resume("unscored-1", null);
+        Resume best = resume("best", null);
+        Resume tied = resume("tied", null);
+        Resume unscoredSecond = resume("unscored-2", null);
+        resumeDataService.applyResults(middle, results("java", 0.5));
+        resumeDataService.applyResults(best, results("java", 0.9));
+        resumeDataService.applyResults(tied, results("java", 0.5));
+        reload();
+
+        List<Long> ranked = resumeDataService.getResumesByJobRankedByScore(job.getId()).stream()
+                .map(Resume::getId)
+                .toList();
+
+        assertEquals(List.of(best.getId(), middle.getId(), tied.getId(), unscoredFirst.getId(), unscoredSecond.getId()),
+                ranked);
+    }
+
+    @Test
+    void backfillsResultsStoredOnlyAsJsonOnce() {
+        Resume legacy = resume("legacy", results("java", 0.2, "sql", 0.6));
+        resume("pending", null);
+        Resume scored = resume("scored", null);
+        resumeDataService.applyResults(scored, results("java", 0.9));
+        reload();
+
+        assertEquals(1, backfill.backfill());
+        reload();
+
+        assertEquals(0.4, entityManager.find(Resume.class, legacy.getId()).getAggregateScore(), 1e-9);
+        assertEquals(List.of("java", "sql"), keywords(legacy));
+        assertEquals(0, backfill.backfill());
+    }
+
+    @Test
+    void skipsTheBackfillWhileAnotherInstanceHoldsTheLock() {
+        Resume legacy = resume("legacy", results("java", 0.2));
+        reload();
+        when(redis.execute(anyString(), any())).thenReturn(false);
+
+        backfill.onApplicationReady();
+        reload();
+
+        assertNull(entityManager.find(Resume.class, legacy.getId()).getAggregateScore());
+        assertTrue(keywords(legacy).isEmpty());
+    }
+
+    private UserEntity user(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        return entityManager.persist(user);
+    }
+
+    private Resume resume(String hash, String results) {
+        Resume resume = new Resume();
+        resume.setResumeHash(hash);
+        resume.setJob(job);
+        resume.setOwner(applicant);
+        resume.setResults(results);
+        return entityManager.persist(resume);
+    }
+
+    private void reload() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<String> keywords(Resume resume) {
+        return keywordScoreRepository.findAll().stream()
+                .filter(score -> score.getResume().getId().equals(resume.getId()))
+                .map(ResumeKeywordScore::getKeyword)
+                .sorted()
+                .toList();
+    }
+
+    // Results JSON for alternating keyword and score arguments
+    private static String results(Object... keywordsAndScores) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < keywordsAndScores.length; i += 2) {
+            json.append(i > 0 ? "," : "").append('"').append(keywordsAndScores[i]).append("\":{\"similarity_score\":")
+                    .append(keywordsAndScores[i + 1]).append(",\"best_matching_ngram\":\"match\"}");
+        }
+        return json.append('}').toString();
+    }
+}
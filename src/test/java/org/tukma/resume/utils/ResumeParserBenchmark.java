@@ -0,0 +1,62 @@
+package org.tukma.resume.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting a resume service result to JSON with the single-pass parser
+ * against the regex version followed by Gson.
+ *
+ * The result holds one entry per keyword, shaped like the resume service's output.
+ *
+ * Run after `mvn test-compile` with
+ * `java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main ResumeParserBenchmark`.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResumeParserBenchmark {
+
+    @Param({"20"})
+    public int keywords;
+
+    private String input;
+
+    @Setup
+    public void setUp() {
+        StringBuilder result = new StringBuilder("{");
+        for (int i = 0; i < keywords; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append("'keyword ").append(i).append("': {'similarity_score': np.float64(")
+                    .append(0.4 + i * 0.013).append("), 'best_matching_ngram': 'matching phrase number ")
+                    .append(i).append(" from the resume'}");
+        }
+        input = result.append('}').toString();
+    }
+
+    @Benchmark
+    public String regexThenGson() {
+        return ResumeResultParser.toJsonString(ResumeResultParser.parseResultsWithRegex(input));
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return ResumeResultParser.pythonToJson(input);
+    }
+}
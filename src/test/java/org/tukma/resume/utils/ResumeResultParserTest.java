@@ -0,0 +1,182 @@
+package org.tukma.resume.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeResultParserTest {
+
+    // Characters the regex version cannot cope with inside keywords or ngrams
+    private static final String SAFE_ALPHABET = "abcdefghijklmnopqrstuvwxyz ABCXYZ0123456789.,-_:;()[]/&+#";
+    private static final String HOSTILE_ALPHABET = SAFE_ALPHABET + "'\"{}\\\n\t\r\u0001\u007f\u00e9\u00f1\u4e2d\u20ac\uD83D\uDE00";
+
+    private static final long FUZZ_SEED = 42;
+    private static final int FUZZ_ITERATIONS = 2_000;
+
+    @Test
+    void parsesTheResumeServiceOutput() {
+        String pythonResult = "{'javascript': {'similarity_score': np.float64(0.48658517708123633), 'best_matching_ngram': 'in Laravel, JavaScript,'}, " +
+                "'frontend': {'similarity_score': np.float64(0.6945115131278724), 'best_matching_ngram': 'the frontend and'}, " +
+                "'software engineer': {'similarity_score': np.float64(0.6592739827568643), 'best_matching_ngram': 'Information Technology Engineers'}}";
+
+        Map<String, Map<String, Object>> results = ResumeResultParser.parseResults(pythonResult);
+
+        assertEquals(3, results.size());
+        assertEquals(0.48658517708123633, results.get("javascript").get("similarity_score"));
+        assertEquals("in Laravel, JavaScript,", results.get("javascript").get("best_matching_ngram"));
+        assertEquals(0.6592739827568643, results.get("software engineer").get("similarity_score"));
+    }
+
+    @Test
+    void unwrapsNumpyScalars() {
+        assertEquals("{\"a\":0.5,\"b\":1.0E-5,\"c\":3,\"d\":null}",
+                ResumeResultParser.pythonToJson("{'a': np.float64(0.5), 'b': np.float64(1e-05), 'c': np.int64(3), 'd': np.float64(nan)}"));
+    }
+
+    @Test
+    void keepsNestedBracesInsideAndOutsideStrings() {
+        assertEquals("{\"c++ {core}\":{\"best_matching_ngram\":\"uses {braces}\",\"positions\":[[1,2],{\"a\":null}]}}",
+                ResumeResultParser.pythonToJson("{'c++ {core}': {'best_matching_ngram': 'uses {braces}', 'positions': [(1, 2), {'a': None}]}}"));
+    }
+
+    @Test
+    void decodesPythonEscapes() {
+        Map<String, Map<String, Object>> results = ResumeResultParser.parseResults(
+                "{'it\\'s': {'best_matching_ngram': 'a\\\\b\\n\"q\"\\x01\\u00e9'}, \"don't\": {'best_matching_ngram': 'ok'}}");
+
+        assertEquals("a\\b\n\"q\"\u0001\u00e9", results.get("it's").get("best_matching_ngram"));
+        assertEquals("ok", results.get("don't").get("best_matching_ngram"));
+    }
+
+    @Test
+    void acceptsTrailingCommas() {
+        assertEquals("{\"java\":{\"similarity_score\":0.5},\"tags\":[1,2],\"pair\":[3]}",
+                ResumeResultParser.pythonToJson("{'java': {'similarity_score': 0.5,}, 'tags': [1, 2,], 'pair': (3,),}"));
+    }
+
+    @Test
+    void fallsBackToTheRegexForUnreadableInput() {
+        // Trailing text stops the tokenizer, but the regex still finds the entry
+        String input = "{'java': {'similarity_score': np.float64(0.5), 'best_matching_ngram': 'Java and Spring'}} <truncated>";
+
+        assertEquals(JsonParser.parseString("{\"java\":{\"similarity_score\":0.5,\"best_matching_ngram\":\"Java and Spring\"}}"),
+                JsonParser.parseString(ResumeResultParser.pythonToJson(input)));
+        assertTrue(ResumeResultParser.parseResults("not a result").isEmpty());
+    }
+
+    @Test
+    void skipsTheRegexForLongUnreadableInput() {
+        // Unclosed entries make the lazy keyword pattern rescan the rest of the input
+        String input = "{" + "'java': {'similarity_score': np.float64(0.5), ".repeat(2_000);
+
+        assertEquals("{}", ResumeResultParser.pythonToJson(input));
+    }
+
+    @Test
+    void matchesTheRegexVersionWhereverItIsCorrect() {
+        Random random = new Random(FUZZ_SEED);
+        for (int i = 0; i < FUZZ_ITERATIONS; i++) {
+            String input = toPython(randomResults(random, SAFE_ALPHABET, false));
+            assertSameJson(input, ResumeResultParser.toJsonString(ResumeResultParser.parseResultsWithRegex(input)),
+                    ResumeResultParser.pythonToJson(input));
+        }
+    }
+
+    @Test
+    void roundTripsHostileTextAndExtraFields() {
+        Random random = new Random(FUZZ_SEED);
+        for (int i = 0; i < FUZZ_ITERATIONS; i++) {
+            Map<String, Map<String, Object>> expected = randomResults(random, HOSTILE_ALPHABET, true);
+            String input = toPython(expected);
+            assertSameJson(input, new Gson().toJson(expected), ResumeResultParser.pythonToJson(input));
+        }
+    }
+
+    private static void assertSameJson(String input, String expected, String actual) {
+        assertEquals(JsonParser.parseString(expected), JsonParser.parseString(actual), () -> "Input: " + input);
+    }
+
+    private static Map<String, Map<String, Object>> randomResults(Random random, String alphabet, boolean extras) {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        int keywords = random.nextInt(12);
+        for (int k = 0; k < keywords; k++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            // Keep scores where Double.toString prints plain decimals, like the service does
+            entry.put("similarity_score", 0.001 + random.nextDouble() * 0.998);
+            entry.put("best_matching_ngram", randomText(random, alphabet));
+            if (extras && random.nextBoolean()) {
+                entry.put("positions", List.of(random.nextInt(1000), random.nextInt(1000)));
+            }
+            results.put(randomText(random, alphabet), entry);
+        }
+        return results;
+    }
+
+    private static String randomText(Random random, String alphabet) {
+        int length = 1 + random.nextInt(24);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.appendCodePoint(alphabet.codePointAt(alphabet.offsetByCodePoints(0,
+                    random.nextInt(alphabet.codePointCount(0, alphabet.length())))));
+        }
+        return text.toString();
+    }
+
+    // Renders results the way Python's repr() does
+    private static String toPython(Object value) {
+        StringBuilder out = new StringBuilder();
+        if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.append(", ");
+                }
+                first = false;
+                out.append(toPython(entry.getKey())).append(": ");
+                if ("similarity_score".equals(entry.getKey())) {
+                    out.append("np.float64(").append(entry.getValue()).append(')');
+                } else {
+                    out.append(toPython(entry.getValue()));
+                }
+            }
+            return out.append('}').toString();
+        }
+        if (value instanceof List<?> list) {
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                out.append(i > 0 ? ", " : "").append(toPython(list.get(i)));
+            }
+            return out.append(']').toString();
+        }
+        if (value instanceof String text) {
+            char quote = text.indexOf('\'') >= 0 && text.indexOf('"') < 0 ? '"' : '\'';
+            out.append(quote);
+            for (char c : text.toCharArray()) {
+                if (c == '\\' || c == quote) {
+                    out.append('\\').append(c);
+                } else if (c == '\n') {
+                    out.append("\\n");
+                } else if (c == '\r') {
+                    out.append("\\r");
+                } else if (c == '\t') {
+                    out.append("\\t");
+                } else if (c < 0x20 || c == 0x7f) {
+                    out.append(String.format("\\x%02x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.append(quote).toString();
+        }
+        return String.valueOf(value);
+    }
+}